@@ -0,0 +1,54 @@
+package com.example.lab10.config;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import com.example.lab10.service.LogCounters;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Logback AsyncAppender (bounded queue, one writer thread) that counts what it drops.
+ *
+ * Events at or below {@code discardLevel} (default INFO) are dropped once the queue's free
+ * capacity falls under {@code discardingThreshold}; with {@code neverBlock} a full queue
+ * drops everything instead of stalling the logging thread. Both show up in
+ * lab10_log_events_dropped_total at GET /admin/metrics. Configured in logback-spring.xml.
+ */
+public class CountingAsyncAppender extends AsyncAppender {
+
+    private Level discardLevel = Level.INFO;
+    private LongAdder discarded;
+    private LongAdder queueFull;
+
+    public void setDiscardLevel(String level) {
+        this.discardLevel = Level.toLevel(level, Level.INFO);
+    }
+
+    @Override
+    public void start() {
+        discarded = LogCounters.dropped(getName(), "discarded");
+        queueFull = LogCounters.dropped(getName(), "queue_full");
+        super.start();
+    }
+
+    @Override
+    protected boolean isDiscardable(ILoggingEvent event) {
+        return event.getLevel().toInt() <= discardLevel.toInt();
+    }
+
+    @Override
+    protected void append(ILoggingEvent event) {
+        int remaining = getRemainingCapacity();
+        if (remaining < getDiscardingThreshold() && isDiscardable(event)) {
+            discarded.increment();
+            return;
+        }
+        // The base class drops silently when the queue is full: count it first (approximate
+        // under contention, the queue can drain or fill between the check and the offer)
+        if (remaining == 0 && isNeverBlock()) {
+            queueFull.increment();
+        }
+        super.append(event);
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.lab10.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverters;
+import org.springframework.http.converter.cbor.JacksonCborHttpMessageConverter;
+import org.springframework.http.converter.smile.JacksonSmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import tools.jackson.dataformat.cbor.CBORMapper;
+import tools.jackson.dataformat.smile.SmileMapper;
+import tools.jackson.module.blackbird.BlackbirdModule;
+
+@Configuration
+public class JacksonConfig implements WebMvcConfigurer {
+
+    /**
+     * Replaces reflective getter/constructor calls in databind with generated lambdas
+     * (LambdaMetafactory). Registered on the auto-configured ObjectMapper as a module bean.
+     */
+    @Bean
+    public BlackbirdModule blackbirdModule() {
+        return new BlackbirdModule();
+    }
+
+    /**
+     * application/cbor and application/x-jackson-smile next to JSON, for request bodies
+     * (Content-Type) and responses (Accept). JSON stays first, so it remains the default.
+     */
+    @Override
+    public void configureMessageConverters(HttpMessageConverters.ServerBuilder builder) {
+        builder.withCborConverter(new JacksonCborHttpMessageConverter(
+                        CBORMapper.builder().addModule(new BlackbirdModule()).build()))
+                .withSmileConverter(new JacksonSmileHttpMessageConverter(
+                        SmileMapper.builder().addModule(new BlackbirdModule()).build()));
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.lab10.config;
+
+import com.example.lab10.service.JfrEvents;
+import com.example.lab10.service.LatencyMetrics;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.ClassFilter;
+import org.springframework.aop.MethodMatcher;
+import org.springframework.aop.ProxyMethodInvocation;
+import org.springframework.aop.framework.AbstractAdvisingBeanPostProcessor;
+import org.springframework.aop.support.ComposablePointcut;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.data.repository.Repository;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.function.SingletonSupplier;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Times every call on a repository bean (Spring Data interfaces and @Repository classes)
+ * into {@link LatencyMetrics}, labelled with the repository and method name, and emits a
+ * {@link JfrEvents.RepositoryQuery} event per call while a recording is running.
+ *
+ * The advice is added in front of the existing proxy's advisors, so the recorded time
+ * includes the transaction and exception translation around the query.
+ */
+@Component
+public class RepositoryTimingPostProcessor extends AbstractAdvisingBeanPostProcessor {
+
+    private static final String APP_PACKAGE = "com.example.lab10.";
+
+    private static final ClassFilter REPOSITORIES = type -> Repository.class.isAssignableFrom(type)
+            || AnnotatedElementUtils.hasAnnotation(type, org.springframework.stereotype.Repository.class);
+
+    public RepositoryTimingPostProcessor(ObjectProvider<LatencyMetrics> metrics) {
+        // Post-processors are created before regular beans; look the registry up on first use
+        this.advisor = new DefaultPointcutAdvisor(new ComposablePointcut(REPOSITORIES, MethodMatcher.TRUE),
+                new TimingInterceptor(SingletonSupplier.of(metrics::getObject)));
+        setBeforeExistingAdvisors(true);
+    }
+
+    private static final class TimingInterceptor implements MethodInterceptor {
+
+        private final Supplier<LatencyMetrics> metrics;
+        // Proxy class -> repository name; Spring Data repositories share one target class
+        private final Map<Class<?>, String> names = new ConcurrentHashMap<>();
+
+        TimingInterceptor(Supplier<LatencyMetrics> metrics) {
+            this.metrics = metrics;
+        }
+
+        @Override
+        public Object invoke(MethodInvocation invocation) throws Throwable {
+            if (invocation.getMethod().getDeclaringClass() == Object.class) {
+                return invocation.proceed();
+            }
+            JfrEvents.RepositoryQuery event = new JfrEvents.RepositoryQuery();
+            event.begin();
+            long start = System.nanoTime();
+            String outcome = "ok";
+            try {
+                return invocation.proceed();
+            } catch (Throwable e) {
+                outcome = e.getClass().getSimpleName();
+                throw e;
+            } finally {
+                String repository = repositoryName(invocation);
+                metrics.get().recordRepository(repository, invocation.getMethod().getName(),
+                        System.nanoTime() - start);
+                if (event.shouldCommit()) {
+                    event.repository = repository;
+                    event.method = invocation.getMethod().getName();
+                    event.outcome = outcome;
+                    event.commit();
+                }
+            }
+        }
+
+        private String repositoryName(MethodInvocation invocation) {
+            Class<?> type = invocation instanceof ProxyMethodInvocation proxied
+                    ? proxied.getProxy().getClass()
+                    : invocation.getMethod().getDeclaringClass();
+            return names.computeIfAbsent(type, t -> Arrays.stream(t.getInterfaces())
+                    .filter(i -> i.getName().startsWith(APP_PACKAGE))
+                    .findFirst()
+                    .orElse(ClassUtils.getUserClass(t))
+                    .getSimpleName());
+        }
+    }
+}
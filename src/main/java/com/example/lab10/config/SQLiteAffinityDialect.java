@@ -0,0 +1,44 @@
+package com.example.lab10.config;
+
+import org.hibernate.community.dialect.SQLiteDialect;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+
+import java.sql.Types;
+
+/**
+ * SQLiteDialect that compares column types the way SQLite stores them when Hibernate
+ * validates the schema (spring.jpa.hibernate.ddl-auto=validate).
+ *
+ * The Flyway migrations declare keys, versions and flags as INTEGER, which SQLite stores as
+ * a 64-bit integer (and INTEGER PRIMARY KEY must stay INTEGER to alias the rowid). The JDBC
+ * driver reports those columns as INTEGER, while the entities map Long / long / boolean
+ * (BIGINT, BOOLEAN); all of them have integer affinity, so they are treated as equivalent.
+ *
+ * Hibernate instantiates the dialect by name, so the native image needs a reflection hint
+ * (registered through META-INF/spring/aot.factories).
+ */
+public class SQLiteAffinityDialect extends SQLiteDialect {
+
+    @Override
+    public boolean equivalentTypes(int typeCode1, int typeCode2) {
+        return super.equivalentTypes(typeCode1, typeCode2)
+                || integerAffinity(typeCode1) && integerAffinity(typeCode2);
+    }
+
+    private static boolean integerAffinity(int typeCode) {
+        return switch (typeCode) {
+            case Types.BOOLEAN, Types.BIT, Types.TINYINT, Types.SMALLINT, Types.INTEGER, Types.BIGINT -> true;
+            default -> false;
+        };
+    }
+
+    static class Hints implements RuntimeHintsRegistrar {
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            hints.reflection().registerType(SQLiteAffinityDialect.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+        }
+    }
+}
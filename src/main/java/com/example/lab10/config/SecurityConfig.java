@@ -1,6 +1,9 @@
 package com.example.lab10.config;
 
 import com.example.lab10.security.JwtAuthFilter;
+import com.example.lab10.security.TimedPasswordEncoder;
+import com.example.lab10.service.LatencyMetrics;
+import jakarta.servlet.DispatcherType;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpStatus;
@@ -32,6 +35,8 @@ public class SecurityConfig {
                 .sessionManagement(sm -> sm.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .exceptionHandling(e -> e.authenticationEntryPoint(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED)))
                 .authorizeHttpRequests(auth -> auth
+                        // Async re-dispatch of an already authorized request (SSE / streaming bodies)
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         .requestMatchers("/auth/**").permitAll()
                         .requestMatchers("/hello").permitAll()
                         .requestMatchers("/api/**").permitAll()
@@ -45,8 +50,8 @@ public class SecurityConfig {
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(LatencyMetrics metrics) {
+        return new TimedPasswordEncoder(new BCryptPasswordEncoder(), metrics);
     }
 
     // for login
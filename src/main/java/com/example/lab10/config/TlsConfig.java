@@ -0,0 +1,84 @@
+package com.example.lab10.config;
+
+import org.apache.coyote.http11.AbstractHttp11Protocol;
+import org.apache.tomcat.util.net.SSLHostConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.tomcat.servlet.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * TLS tuning for the https profile.
+ *
+ * - Session resumption: a large server-side session cache plus stateless session tickets,
+ *   so returning clients skip the full handshake. Ticket keys are generated and rotated
+ *   by the TLS engine itself; the session timeout bounds how long a ticket stays usable.
+ *   JSSE issues TLS 1.3 tickets by default (jdk.tls.server.enableSessionTicketExtension).
+ * - Optional OpenSSL engine (tomcat-native) when the native library is installed. The native
+ *   library is initialized by Tomcat's AprLifecycleListener, which only works as a listener
+ *   on the Server, so it is enabled through the factory's use-APR switch.
+ */
+@Configuration
+@Profile("https")
+public class TlsConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(TlsConfig.class);
+
+    private static final String OPENSSL_IMPLEMENTATION = "org.apache.tomcat.util.net.openssl.OpenSSLImplementation";
+
+    @Value("${app.tls.session-cache-size:20000}")
+    private int sessionCacheSize;
+
+    @Value("${app.tls.session-timeout-seconds:14400}")
+    private int sessionTimeoutSeconds;
+
+    @Value("${app.tls.engine:auto}")
+    private String engine;
+
+    @Bean
+    public WebServerFactoryCustomizer<TomcatServletWebServerFactory> tlsCustomizer() {
+        boolean openSsl = useOpenSsl();
+        return factory -> {
+            if (openSsl) {
+                // Registers AprLifecycleListener on the Server
+                factory.setUseApr(true);
+            }
+            factory.addConnectorCustomizers(connector -> {
+                if (!(connector.getProtocolHandler() instanceof AbstractHttp11Protocol<?> protocol)) {
+                    return;
+                }
+                if (openSsl) {
+                    protocol.setSslImplementationName(OPENSSL_IMPLEMENTATION);
+                }
+                for (SSLHostConfig hostConfig : protocol.findSslHostConfigs()) {
+                    hostConfig.setSessionCacheSize(sessionCacheSize);
+                    hostConfig.setSessionTimeout(sessionTimeoutSeconds);
+                }
+                logger.info("TLS engine: {}, session cache: {} entries / {} s",
+                        openSsl ? "OpenSSL" : "JSSE", sessionCacheSize, sessionTimeoutSeconds);
+            });
+        };
+    }
+
+    private boolean useOpenSsl() {
+        return switch (engine) {
+            case "jsse" -> false;
+            case "openssl" -> true;
+            default -> openSslAvailable();
+        };
+    }
+
+    private static boolean openSslAvailable() {
+        try {
+            System.loadLibrary("tcnative-2");
+            return true;
+        } catch (UnsatisfiedLinkError e) {
+            logger.info("tomcat-native not found, using JSSE");
+            return false;
+        }
+    }
+}
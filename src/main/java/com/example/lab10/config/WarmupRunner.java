@@ -0,0 +1,217 @@
+package com.example.lab10.config;
+
+import com.example.lab10.dto_.LoginRequest;
+import com.example.lab10.dto_.NoteFields;
+import com.example.lab10.dto_.NoteRequest;
+import com.example.lab10.dto_.NoteView;
+import com.example.lab10.dto_.TokenResponse;
+import com.example.lab10.dto_.UserCreateRequest;
+import com.example.lab10.entity.AppUser;
+import com.example.lab10.entity.Note;
+import com.example.lab10.repo.NoteRepository;
+import com.example.lab10.repo.NoteSearchRepository;
+import com.example.lab10.repo.UserRepository;
+import com.example.lab10.security.JwtUtil;
+import com.example.lab10.service.ReadinessService;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.databind.ObjectMapper;
+
+import java.lang.management.CompilationMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * JIT warm-up after a deploy, before the node reports ready (GET /health/ready).
+ *
+ * Runs after DataInitializer, in the background: rounds of token signing/parsing, JSON
+ * serialization, bean validation and the note query paths (against a scratch user, in
+ * transactions that are rolled back) until the JIT stops compiling or the time budget
+ * runs out. Readiness is held meanwhile; the duration is logged and shown at GET /admin/warmup.
+ */
+@Component
+@Order(2)
+public class WarmupRunner implements CommandLineRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(WarmupRunner.class);
+
+    // Compilation is considered settled after this many quiet rounds in a row
+    private static final int QUIET_ROUNDS = 3;
+
+    private final ReadinessService readiness;
+    private final JwtUtil jwtUtil;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final UserRepository userRepository;
+    private final NoteRepository noteRepository;
+    private final NoteSearchRepository noteSearchRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.warmup.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.warmup.budget-ms:30000}")
+    private long budgetMillis;
+
+    @Value("${app.warmup.iterations-per-round:200}")
+    private int iterationsPerRound;
+
+    // A round that adds less JIT compile time than this is "quiet"
+    @Value("${app.warmup.quiet-compile-ms:5}")
+    private long quietCompileMillis;
+
+    private volatile Map<String, Object> report = Map.of("state", "pending");
+
+    public WarmupRunner(ReadinessService readiness,
+                        JwtUtil jwtUtil,
+                        ObjectMapper objectMapper,
+                        Validator validator,
+                        UserRepository userRepository,
+                        NoteRepository noteRepository,
+                        NoteSearchRepository noteSearchRepository,
+                        PlatformTransactionManager transactionManager) {
+        this.readiness = readiness;
+        this.jwtUtil = jwtUtil;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.userRepository = userRepository;
+        this.noteRepository = noteRepository;
+        this.noteSearchRepository = noteSearchRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public void run(String... args) {
+        if (!enabled) {
+            report = Map.of("state", "disabled");
+            return;
+        }
+        // Held before startup completes, so the node never reports ready un-warmed
+        readiness.holdWarmup();
+        Thread.ofPlatform().name("warmup").daemon().start(this::warmUp);
+    }
+
+    private void warmUp() {
+        CompilationMXBean jit = ManagementFactory.getCompilationMXBean();
+        boolean jitTimed = jit != null && jit.isCompilationTimeMonitoringSupported();
+
+        long start = System.nanoTime();
+        long deadline = start + budgetMillis * 1_000_000L;
+        long compileStart = jitTimed ? jit.getTotalCompilationTime() : 0;
+        int rounds = 0;
+        int quiet = 0;
+        String stoppedBy = "budget";
+
+        try {
+            while (System.nanoTime() < deadline) {
+                long compileBefore = jitTimed ? jit.getTotalCompilationTime() : 0;
+                round();
+                rounds++;
+
+                if (jitTimed) {
+                    quiet = jit.getTotalCompilationTime() - compileBefore < quietCompileMillis ? quiet + 1 : 0;
+                    if (quiet >= QUIET_ROUNDS) {
+                        stoppedBy = "compilation settled";
+                        break;
+                    }
+                }
+            }
+        } catch (RuntimeException e) {
+            // Warm-up is an optimization: never keep the node out of rotation because of it
+            stoppedBy = "error";
+            logger.warn("Warm-up aborted: {}", e.toString());
+        } finally {
+            long millis = (System.nanoTime() - start) / 1_000_000;
+            Map<String, Object> res = new LinkedHashMap<>();
+            res.put("state", "done");
+            res.put("durationMs", millis);
+            res.put("rounds", rounds);
+            res.put("stoppedBy", stoppedBy);
+            if (jitTimed) {
+                res.put("jitCompileMs", jit.getTotalCompilationTime() - compileStart);
+            }
+            report = res;
+            readiness.warmupComplete();
+            logger.info("Warm-up finished in {} ms ({} rounds, {})", millis, rounds, stoppedBy);
+        }
+    }
+
+    private void round() {
+        String username = "warmup-" + UUID.randomUUID().toString().substring(0, 8);
+
+        for (int i = 0; i < iterationsPerRound; i++) {
+            // Auth: sign, parse, serialize the token response
+            String token = jwtUtil.generateToken(username, List.of("ROLE_USER"));
+            jwtUtil.parse(token);
+            objectMapper.writeValueAsBytes(new TokenResponse(token, token, 3600));
+
+            // Request validation (built-in and custom constraints)
+            UserCreateRequest user = new UserCreateRequest();
+            user.setUsername(i % 2 == 0 ? username : "x");
+            user.setEmail("warmup@example.com");
+            user.setPassword("Warmup123!");
+            validator.validate(user);
+
+            LoginRequest login = new LoginRequest();
+            login.setUsername(username);
+            validator.validate(login);
+
+            NoteRequest note = new NoteRequest();
+            note.setTitle("Warm-up note " + i);
+            note.setContent("warm-up content");
+            validator.validate(note);
+
+            // Note maps as the notes endpoints render them
+            NoteView view = new NoteView((long) i, "Warm-up note " + i, "warm-up content", i, false);
+            objectMapper.writeValueAsBytes(List.of(NoteFields.ALL.toMap(view),
+                    NoteFields.parse("id,title").toMap(view)));
+        }
+
+        // Query paths against a scratch user; nothing is committed
+        transactionTemplate.executeWithoutResult(status -> {
+            AppUser user = new AppUser();
+            user.setUsername(username);
+            user.setEmail(username + "@warmup.invalid");
+            user.setPassword("-");
+            user.setRole("ROLE_USER");
+            userRepository.save(user);
+
+            for (int i = 0; i < 10; i++) {
+                Note note = new Note();
+                note.setUser(user);
+                note.setTitle("Warm-up note " + i);
+                note.setContent("warm-up meeting notes " + i);
+                noteRepository.save(note);
+            }
+            noteRepository.flush();
+
+            for (int i = 0; i < iterationsPerRound / 10; i++) {
+                List<NoteView> views = noteRepository.findViewsByUsername(username);
+                noteRepository.findSummariesByUsername(username);
+                long id = views.get(i % views.size()).id();
+                noteRepository.findViewOwned(id, username);
+                noteRepository.findSummaryOwned(id, username);
+                noteRepository.findVersionOwned(id, username).ifPresent(version -> {
+                    noteRepository.updateOwned(id, username, "Warm-up note", "warm-up", version);
+                    noteRepository.patchOwned(id, username, null, "warm-up meeting", null);
+                });
+                noteSearchRepository.search(username, "meeting", 20, 0);
+            }
+            status.setRollbackOnly();
+        });
+    }
+
+    public Map<String, Object> report() {
+        return report;
+    }
+}
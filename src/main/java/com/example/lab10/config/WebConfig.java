@@ -0,0 +1,62 @@
+package com.example.lab10.config;
+
+import com.example.lab10.security.HstsFilter;
+import com.example.lab10.security.JwtAuthFilter;
+import com.example.lab10.security.RateLimitFilter;
+import com.example.lab10.security.SecurityHeadersFilter;
+import jakarta.servlet.Filter;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+
+@Configuration
+public class WebConfig {
+
+    /**
+     * Content-hashed ETags for static assets, so revalidation (If-None-Match -> 304)
+     * doesn't depend on file timestamps. Each encoding (.gz / identity) gets its own tag.
+     * API responses set their own version-based ETags and are not covered.
+     */
+    @Bean
+    public FilterRegistrationBean<ShallowEtagHeaderFilter> staticEtagFilter() {
+        FilterRegistrationBean<ShallowEtagHeaderFilter> registration =
+                new FilterRegistrationBean<>(new ShallowEtagHeaderFilter());
+        registration.addUrlPatterns("/", "*.html", "*.svg", "*.ico", "*.css", "*.js");
+        return registration;
+    }
+
+    /*
+     * Filter beans are registered with the servlet container automatically. These run
+     * elsewhere: JwtAuthFilter inside the Spring Security chain, the others as stages of
+     * RequestPipelineFilter. Registering them again would run them twice per request.
+     */
+
+    @Bean
+    public FilterRegistrationBean<JwtAuthFilter> jwtAuthFilterRegistration(JwtAuthFilter filter) {
+        return notRegistered(filter);
+    }
+
+    @Bean
+    public FilterRegistrationBean<RateLimitFilter> rateLimitFilterRegistration(RateLimitFilter filter) {
+        return notRegistered(filter);
+    }
+
+    @Bean
+    public FilterRegistrationBean<SecurityHeadersFilter> securityHeadersFilterRegistration(SecurityHeadersFilter filter) {
+        return notRegistered(filter);
+    }
+
+    @Bean
+    @Profile("https")
+    public FilterRegistrationBean<HstsFilter> hstsFilterRegistration(HstsFilter filter) {
+        return notRegistered(filter);
+    }
+
+    private static <T extends Filter> FilterRegistrationBean<T> notRegistered(T filter) {
+        FilterRegistrationBean<T> registration = new FilterRegistrationBean<>(filter);
+        registration.setEnabled(false);
+        return registration;
+    }
+}
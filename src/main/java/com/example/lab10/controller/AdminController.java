@@ -1,17 +1,193 @@
 package com.example.lab10.controller;
 
+import com.example.lab10.config.WarmupRunner;
+import com.example.lab10.service.FlightRecorderService;
+import com.example.lab10.service.LatencyMetrics;
+import com.example.lab10.service.LogCounters;
+import com.example.lab10.service.NoteCache;
+import com.example.lab10.service.NoteContentStore;
+import com.example.lab10.service.SecurityEventAggregator;
+import com.example.lab10.service.SingleFlightRegistry;
+import com.example.lab10.service.VirtualThreadPinningMonitor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.Map;
 
 @RestController
 @RequestMapping("/admin")
 public class AdminController {
 
+    private static final MediaType PROMETHEUS_TEXT = MediaType.parseMediaType("text/plain; version=0.0.4; charset=utf-8");
+
+    private final NoteCache noteCache;
+    private final NoteContentStore noteContentStore;
+    private final SingleFlightRegistry singleFlights;
+    // Only present with app.diagnostics.pinning.enabled (virtual profile)
+    private final ObjectProvider<VirtualThreadPinningMonitor> pinningMonitor;
+    private final WarmupRunner warmupRunner;
+    private final LatencyMetrics latencyMetrics;
+    private final SecurityEventAggregator securityEvents;
+    private final FlightRecorderService flightRecorder;
+
+    public AdminController(NoteCache noteCache,
+                           NoteContentStore noteContentStore,
+                           SingleFlightRegistry singleFlights,
+                           ObjectProvider<VirtualThreadPinningMonitor> pinningMonitor,
+                           WarmupRunner warmupRunner,
+                           LatencyMetrics latencyMetrics,
+                           SecurityEventAggregator securityEvents,
+                           FlightRecorderService flightRecorder) {
+        this.noteCache = noteCache;
+        this.noteContentStore = noteContentStore;
+        this.singleFlights = singleFlights;
+        this.pinningMonitor = pinningMonitor;
+        this.warmupRunner = warmupRunner;
+        this.latencyMetrics = latencyMetrics;
+        this.securityEvents = securityEvents;
+        this.flightRecorder = flightRecorder;
+    }
+
     @GetMapping("/ping")
     @PreAuthorize("hasAuthority('ROLE_ADMIN')")
     public Map<String, Object> ping() {
         return Map.of("ok", true, "msg", "ADMIN OK");
     }
+
+    // Notes cache: hit ratio, evictions, memory weight
+    @GetMapping("/cache/notes")
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    public Map<String, Object> notesCacheStats() {
+        return noteCache.stats();
+    }
+
+    // Request coalescing: database round trips saved per read path
+    @GetMapping("/single-flight")
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    public Map<String, Object> singleFlightStats() {
+        return singleFlights.stats();
+    }
+
+    // Virtual thread pinning sites (JFR jdk.VirtualThreadPinned)
+    @GetMapping("/diagnostics/pinning")
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    public Map<String, Object> pinning() {
+        VirtualThreadPinningMonitor monitor = pinningMonitor.getIfAvailable();
+        return monitor != null ? monitor.stats() : Map.of("enabled", false);
+    }
+
+    // Startup JIT warm-up: duration, rounds, why it stopped
+    @GetMapping("/warmup")
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    public Map<String, Object> warmup() {
+        return warmupRunner.report();
+    }
+
+    // Latency histograms (requests, auth stages, repository calls) and dropped/suppressed
+    // log events, Prometheus text format
+    @GetMapping("/metrics")
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    public ResponseEntity<String> metrics() {
+        return ResponseEntity.ok()
+                .contentType(PROMETHEUS_TEXT)
+                .body(latencyMetrics.prometheus() + LogCounters.prometheus());
+    }
+
+    // Security events per minute by type, masked username and IP prefix (newest first)
+    @GetMapping("/security/events")
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    public Map<String, Object> securityEvents(@RequestParam(defaultValue = "15") int minutes) {
+        return securityEvents.stats(Math.max(0, minutes));
+    }
+
+    // JFR recording state (NONE, RUNNING, STOPPED) and limits
+    @GetMapping("/jfr")
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    public Map<String, Object> jfrStatus() {
+        return flightRecorder.status();
+    }
+
+    // Start a bounded JFR recording (JDK "default" or "profile" settings + the app's events)
+    @PostMapping("/jfr/start")
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    public ResponseEntity<?> jfrStart(@RequestParam(defaultValue = "default") String settings,
+                                      @RequestParam(required = false) Long durationSeconds,
+                                      @RequestParam(required = false) Long maxAgeSeconds,
+                                      @RequestParam(required = false) Long maxSizeMb) throws IOException {
+        try {
+            Map<String, Object> started = flightRecorder.start(settings, durationSeconds, maxAgeSeconds, maxSizeMb);
+            if (started == null) {
+                return ResponseEntity.status(HttpStatus.CONFLICT)
+                        .body(Map.of("status", 409, "error", "recording_in_progress"));
+            }
+            return ResponseEntity.ok(started);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("status", 400, "error", "invalid_settings", "message", e.getMessage()));
+        }
+    }
+
+    // Stop the recording; its data stays downloadable until the next start
+    @PostMapping("/jfr/stop")
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    public ResponseEntity<?> jfrStop() {
+        Map<String, Object> stopped = flightRecorder.stop();
+        if (stopped == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(Map.of("status", 404, "error", "no_recording"));
+        }
+        return ResponseEntity.ok(stopped);
+    }
+
+    // Download the recording as a .jfr file (a snapshot while it is still running)
+    @GetMapping("/jfr/dump")
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    public ResponseEntity<StreamingResponseBody> jfrDump() throws IOException {
+        Path file = flightRecorder.dump();
+        if (file == null) {
+            byte[] json = "{\"status\":404,\"error\":\"no_recording\"}".getBytes(StandardCharsets.UTF_8);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(out -> out.write(json));
+        }
+
+        String filename = "lab10-" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")) + ".jfr";
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .contentLength(Files.size(file))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                .body(out -> {
+                    try {
+                        Files.copy(file, out);
+                    } finally {
+                        Files.deleteIfExists(file);
+                    }
+                });
+    }
+
+    // Note storage: database size, inline vs. out-of-row bytes, compression ratio
+    @GetMapping("/storage/notes")
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    public Map<String, Object> notesStorageReport() {
+        return noteContentStore.storageReport();
+    }
+
+    // Run one recompression pass now instead of waiting for the scheduled one
+    @PostMapping("/storage/notes/recompress")
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    public Map<String, Long> recompressNotes() {
+        return noteContentStore.recompress();
+    }
 }
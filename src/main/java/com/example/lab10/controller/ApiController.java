@@ -1,25 +1,47 @@
 package com.example.lab10.controller;
 
+import com.example.lab10.dto_.ProfileResponse;
 import com.example.lab10.dto_.UserCreateRequest;
+import com.example.lab10.dto_.UserSummary;
 import com.example.lab10.entity.AppUser;
 import com.example.lab10.repo.UserRepository;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api")
 public class ApiController {
 
+    private static final Logger logger = LoggerFactory.getLogger(ApiController.class);
+
+    // Relay buffer for POST /api/echo: memory per request stays constant whatever the body size
+    private static final int ECHO_BUFFER_BYTES = 8192;
+    private static final String ECHO_STATS = ApiController.class.getName() + ".echoStats";
+    private static final String ECHO_TRUNCATED = ApiController.class.getName() + ".echoTruncated";
+
     private final UserRepository userRepository;
 
+    @Value("${app.echo.max-bytes:10485760}")
+    private long maxEchoBytes;
+
     public ApiController(UserRepository userRepository) {
         this.userRepository = userRepository;
     }
@@ -27,17 +49,10 @@ public class ApiController {
     // GET all users (ADMIN only)
     @GetMapping("/users")
     @PreAuthorize("hasAuthority('ROLE_ADMIN')")
-    public List<Map<String, Object>> getUsers() {
+    public List<UserSummary> getUsers() {
         return userRepository.findAll().stream()
-                .map(user -> {
-                    Map<String, Object> userMap = new HashMap<>();
-                    userMap.put("id", user.getId());
-                    userMap.put("username", user.getUsername());
-                    userMap.put("email", user.getEmail());
-                    userMap.put("role", user.getRole());
-                    return userMap;
-                })
-                .collect(Collectors.toList());
+                .map(UserSummary::of)
+                .toList();
     }
 
     // GET + query param
@@ -48,10 +63,76 @@ public class ApiController {
         return res;
     }
 
-    // POST + echo body
-    @PostMapping(value = "/echo", consumes = MediaType.TEXT_PLAIN_VALUE, produces = MediaType.TEXT_PLAIN_VALUE)
-    public String echoPost(@RequestBody String body) {
-        return body;
+    // POST + echo body, streamed back through a fixed buffer (fixed-length or chunked, up to app.echo.max-bytes)
+    @PostMapping(value = "/echo", consumes = {MediaType.TEXT_PLAIN_VALUE, MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    public void echoPost(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        long declared = request.getContentLengthLong();
+        if (declared > maxEchoBytes) {
+            echoTooLarge(response);
+            return;
+        }
+
+        response.setContentType(request.getContentType());
+        if (declared >= 0) {
+            response.setContentLengthLong(declared);
+        } else if (!"HTTP/1.0".equals(request.getProtocol())) {
+            // Chunked request: relayed chunked, with the totals as trailers
+            response.setTrailerFields(() -> {
+                long[] stats = echoStats(request);
+                Map<String, String> trailers = new HashMap<>(Map.of("Echo-Bytes", String.valueOf(stats[0]),
+                        "Echo-MBps", String.format(Locale.ROOT, "%.1f", mbPerSecond(stats))));
+                if (request.getAttribute(ECHO_TRUNCATED) != null) {
+                    trailers.put("Echo-Truncated", "true");
+                }
+                return trailers;
+            });
+        }
+
+        long start = System.nanoTime();
+        long total = 0;
+        byte[] buffer = new byte[ECHO_BUFFER_BYTES];
+        InputStream in = request.getInputStream();
+        OutputStream out = response.getOutputStream();
+        int n;
+        while ((n = in.read(buffer)) != -1) {
+            if (total + n > maxEchoBytes) {
+                // Nothing sent yet: a proper 413
+                if (!response.isCommitted()) {
+                    response.resetBuffer();
+                    echoTooLarge(response);
+                    return;
+                }
+                // Already streaming: the status is sent, so end the body where it is. Not an error
+                // worth a stack trace; chunked clients see Echo-Truncated in the trailers.
+                logger.debug("Echo truncated after {} bytes: body exceeds {} bytes", total, maxEchoBytes);
+                request.setAttribute(ECHO_TRUNCATED, Boolean.TRUE);
+                break;
+            }
+            out.write(buffer, 0, n);
+            total += n;
+        }
+        long[] stats = {total, System.nanoTime() - start};
+        request.setAttribute(ECHO_STATS, stats);
+        logger.debug("Echoed {} bytes at {} MB/s", total, String.format(Locale.ROOT, "%.1f", mbPerSecond(stats)));
+    }
+
+    private static long[] echoStats(HttpServletRequest request) {
+        Object stats = request.getAttribute(ECHO_STATS);
+        return stats instanceof long[] s ? s : new long[] {0, 0};
+    }
+
+    private static double mbPerSecond(long[] stats) {
+        return stats[1] == 0 ? 0.0 : stats[0] / 1_048_576.0 / (stats[1] / 1e9);
+    }
+
+    private void echoTooLarge(HttpServletResponse response) throws IOException {
+        response.setStatus(HttpStatus.CONTENT_TOO_LARGE.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        // Output stream, not the writer: the relay may already have opened it
+        byte[] body = ("{\"status\":413,\"error\":\"echo_too_large\",\"maxBytes\":" + maxEchoBytes + "}")
+                .getBytes(StandardCharsets.UTF_8);
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
     }
 
     // GET + header read
@@ -68,14 +149,11 @@ public class ApiController {
 
     // GET current user profile
     @GetMapping("/profile")
-    public Map<String, Object> profile() {
+    public ProfileResponse profile() {
         var auth = SecurityContextHolder.getContext().getAuthentication();
-        Map<String, Object> res = new HashMap<>();
-        res.put("username", auth.getName());
-        res.put("roles", auth.getAuthorities().stream()
+        return new ProfileResponse(auth.getName(), auth.getAuthorities().stream()
                 .map(Object::toString)
-                .collect(Collectors.toList()));
-        return res;
+                .toList());
     }
 
     // POST + JSON body + validation
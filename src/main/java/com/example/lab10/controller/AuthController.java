@@ -9,6 +9,7 @@ import com.example.lab10.entity.RefreshToken;
 import com.example.lab10.repo.UserRepository;
 import com.example.lab10.security.JwtUtil;
 import com.example.lab10.security.RateLimiter;
+import com.example.lab10.service.SecurityEventAggregator;
 import com.example.lab10.service.TokenService;
 import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletRequest;
@@ -41,6 +42,7 @@ public class AuthController {
     private final JwtUtil jwtUtil;
     private final TokenService tokenService;
     private final RateLimiter rateLimiter;
+    private final SecurityEventAggregator securityEvents;
 
     @Value("${app.jwt.exp-minutes:15}")
     private long accessTokenExpMinutes;
@@ -50,29 +52,35 @@ public class AuthController {
                           AuthenticationManager authenticationManager,
                           JwtUtil jwtUtil,
                           TokenService tokenService,
-                          RateLimiter rateLimiter) {
+                          RateLimiter rateLimiter,
+                          SecurityEventAggregator securityEvents) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.authenticationManager = authenticationManager;
         this.jwtUtil = jwtUtil;
         this.tokenService = tokenService;
         this.rateLimiter = rateLimiter;
+        this.securityEvents = securityEvents;
     }
 
     /**
      * Register a new user.
      */
     @PostMapping("/register")
-    public ResponseEntity<Map<String, Object>> register(@Valid @RequestBody UserCreateRequest req) {
+    public ResponseEntity<Map<String, Object>> register(@Valid @RequestBody UserCreateRequest req,
+                                                        HttpServletRequest request) {
 
+        // Rejections are counted, not logged: repeated probing is how accounts get enumerated
         if (userRepository.existsByEmail(req.getEmail())) {
-            logger.warn("Registration failed: email already taken");
+            securityEvents.record(SecurityEventAggregator.Type.REGISTRATION_REJECTED,
+                    req.getUsername(), request.getRemoteAddr());
             return ResponseEntity.badRequest()
                     .body(Map.of("ok", false, "error", "email_taken"));
         }
 
         if (userRepository.existsByUsername(req.getUsername())) {
-            logger.warn("Registration failed: username already taken");
+            securityEvents.record(SecurityEventAggregator.Type.REGISTRATION_REJECTED,
+                    req.getUsername(), request.getRemoteAddr());
             return ResponseEntity.badRequest()
                     .body(Map.of("ok", false, "error", "username_taken"));
         }
@@ -141,13 +149,10 @@ public class AuthController {
             return ResponseEntity.ok(tokenResponse);
 
         } catch (AuthenticationException e) {
-            // Record failed login for rate limiting
+            // Record failed login for rate limiting; the attempt itself is counted by
+            // SecurityEventListener (AuthenticationFailure event)
             rateLimiter.recordFailedLogin(clientIp);
-            
-            // Log failed attempt (no password!)
-            logger.warn("Failed login attempt for user: {} from IP: {}", 
-                    maskUsername(req.getUsername()), clientIp);
-            
+
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body(Map.of("error", "invalid_credentials", "message", "Invalid username or password"));
         }
@@ -159,6 +164,7 @@ public class AuthController {
      */
     @PostMapping("/refresh")
     public ResponseEntity<?> refreshToken(@Valid @RequestBody RefreshTokenRequest req,
+                                          HttpServletRequest request,
                                           HttpServletResponse response) {
         
         String refreshTokenStr = req.getRefreshToken();
@@ -167,7 +173,7 @@ public class AuthController {
         Optional<RefreshToken> newTokenOpt = tokenService.rotateRefreshToken(refreshTokenStr);
         
         if (newTokenOpt.isEmpty()) {
-            logger.warn("Invalid or expired refresh token used");
+            securityEvents.record(SecurityEventAggregator.Type.REFRESH_REJECTED, null, request.getRemoteAddr());
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body(Map.of("error", "invalid_refresh_token", 
                                  "message", "Refresh token is invalid, expired, or already used"));
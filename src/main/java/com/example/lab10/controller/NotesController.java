@@ -1,51 +1,189 @@
 package com.example.lab10.controller;
 
+import com.example.lab10.dto_.NoteBatchRequest;
+import com.example.lab10.dto_.NoteFields;
+import com.example.lab10.dto_.NotePatchRequest;
 import com.example.lab10.dto_.NoteRequest;
+import com.example.lab10.dto_.NoteView;
 import com.example.lab10.entity.Note;
 import com.example.lab10.repo.NoteRepository;
+import com.example.lab10.repo.NoteSearchRepository;
 import com.example.lab10.repo.UserRepository;
+import com.example.lab10.service.NoteBatchService;
+import com.example.lab10.service.NoteCache;
+import com.example.lab10.service.NoteContentStore;
+import com.example.lab10.service.NoteEventBus;
+import com.example.lab10.service.NoteResponseWriter;
+import com.example.lab10.service.ResponseFormat;
+import com.example.lab10.service.SingleFlight;
+import com.example.lab10.service.SingleFlightRegistry;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/notes")
 public class NotesController {
 
+    private static final int MAX_SEARCH_PAGE_SIZE = 100;
+
+    // 3, v3, "v3" or a note ETag with its variant suffix ("v3-id,title-cbor")
+    private static final Pattern NOTE_VERSION_TAG = Pattern.compile("(\"?)v?(\\d{1,18})(?:-[^\"]*)?\\1");
+    // Expected version that matches no row: the write fails with 412 (404 if the note is gone)
+    private static final long NO_VERSION = -1L;
+
     private final NoteRepository noteRepository;
     private final UserRepository userRepository;
+    private final NoteSearchRepository noteSearchRepository;
+    private final NoteBatchService noteBatchService;
+    private final NoteCache noteCache;
+    private final NoteContentStore noteContentStore;
+    private final NoteEventBus noteEventBus;
+    private final NoteResponseWriter noteResponseWriter;
+    // Concurrent GET /notes/{id} for the same note share one version lookup / one load;
+    // writes detach in-flight ones (noteChanged) so later reads never join a pre-write lookup
+    private final SingleFlight<NoteKey, Optional<Long>> noteVersionLookups;
+    private final SingleFlight<NoteLoadKey, Optional<byte[]>> noteLoads;
 
-    public NotesController(NoteRepository noteRepository, UserRepository userRepository) {
+    @Value("${app.notes.batch.max-size:100}")
+    private int maxBatchSize;
+
+    public NotesController(NoteRepository noteRepository,
+                           UserRepository userRepository,
+                           NoteSearchRepository noteSearchRepository,
+                           NoteBatchService noteBatchService,
+                           NoteCache noteCache,
+                           NoteContentStore noteContentStore,
+                           NoteEventBus noteEventBus,
+                           NoteResponseWriter noteResponseWriter,
+                           SingleFlightRegistry singleFlights) {
         this.noteRepository = noteRepository;
         this.userRepository = userRepository;
+        this.noteSearchRepository = noteSearchRepository;
+        this.noteBatchService = noteBatchService;
+        this.noteCache = noteCache;
+        this.noteContentStore = noteContentStore;
+        this.noteEventBus = noteEventBus;
+        this.noteResponseWriter = noteResponseWriter;
+        this.noteVersionLookups = singleFlights.get("notes.version");
+        this.noteLoads = singleFlights.get("notes.read");
     }
 
+    private record NoteKey(String username, Long id) {}
+
+    private record NoteLoadKey(String username, Long id, String variant, long version) {}
+
     private String currentUsername() {
         return SecurityContextHolder.getContext().getAuthentication().getName();
     }
 
-    // ✅ GET my notes
+    // ✅ GET my notes (?fields=id,title,... ; JSON, CBOR or Smile by Accept; conditional: If-None-Match answered from the collection version alone)
     @GetMapping
-    public List<Map<String, Object>> myNotes() {
+    public ResponseEntity<?> myNotes(@RequestParam(required = false) String fields,
+                                     @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch,
+                                     @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        NoteFields noteFields;
+        try {
+            noteFields = NoteFields.parse(fields);
+        } catch (IllegalArgumentException e) {
+            return invalidFields(e);
+        }
+
         String username = currentUsername();
 
-        return noteRepository.findByUserUsername(username)
-                .stream()
-                .map(n -> {
+        var collectionVersion = userRepository.findNotesVersionByUsername(username);
+        if (collectionVersion.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(Map.of("status", 404, "error", "user_not_found"));
+        }
+
+        ResponseFormat format = ResponseFormat.negotiate(accept);
+        String etag = collectionETag(collectionVersion.get(), noteFields, format);
+        if (etagMatches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).varyBy(HttpHeaders.ACCEPT).build();
+        }
+
+        // Served from pre-serialized bytes while the collection version is unchanged.
+        // Without "content" the projection never reads the content column.
+        byte[] body = noteCache.list(username, noteFields.key() + format.suffix(), collectionVersion.get(), () -> {
+            List<NoteView> views = noteFields.includes(NoteFields.Field.CONTENT)
+                    ? noteRepository.findViewsByUsername(username)
+                    : noteRepository.findSummariesByUsername(username);
+            return noteResponseWriter.writeList(views, noteFields, format);
+        });
+
+        return ResponseEntity.ok().eTag(etag).varyBy(HttpHeaders.ACCEPT).contentType(format.mediaType()).body(body);
+    }
+
+    // ✅ STREAM of my note changes (Server-Sent Events, resumable with Last-Event-ID)
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> stream(
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        SseEmitter emitter = noteEventBus.subscribe(currentUsername(), lastEventId);
+        if (emitter == null) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).header("Retry-After", "30").build();
+        }
+        return ResponseEntity.ok(emitter);
+    }
+
+    // ✅ SEARCH my notes (full-text, ranked, paginated)
+    @GetMapping("/search")
+    public ResponseEntity<?> search(@RequestParam String q,
+                                    @RequestParam(defaultValue = "0") int page,
+                                    @RequestParam(defaultValue = "20") int size) {
+        if (NoteSearchRepository.toMatchExpression(q).isEmpty()) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("status", 400, "error", "invalid_query"));
+        }
+        if (page < 0 || size < 1 || size > MAX_SEARCH_PAGE_SIZE) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("status", 400, "error", "invalid_page"));
+        }
+
+        // Fetch one extra row to know if there is a next page without a COUNT(*)
+        var hits = noteSearchRepository.search(currentUsername(), q, size + 1, (long) page * size);
+        boolean hasMore = hits.size() > size;
+
+        List<Map<String, Object>> results = hits.stream()
+                .limit(size)
+                .map(hit -> {
                     Map<String, Object> m = new HashMap<>();
-                    m.put("id", n.getId());
-                    m.put("title", n.getTitle());
-                    m.put("content", n.getContent());
+                    m.put("id", hit.id());
+                    m.put("title", hit.title());
+                    m.put("snippet", hit.snippet());
+                    m.put("score", hit.score());
                     return m;
                 })
                 .collect(Collectors.toList());
+
+        Map<String, Object> res = new HashMap<>();
+        res.put("query", q);
+        res.put("page", page);
+        res.put("size", size);
+        res.put("hasMore", hasMore);
+        res.put("results", results);
+        return ResponseEntity.ok(res);
     }
 
     // CREATE note
@@ -65,59 +203,414 @@ public class NotesController {
         n.setContent(req.getContent());
 
         noteRepository.save(n);
+        noteCache.evictList(username);
+        noteEventBus.publish(username, NoteEventBus.CREATED, n.getId());
 
         return ResponseEntity.ok(Map.of("ok", true, "id", n.getId()));
     }
 
-    // ✅ GET note by id (only owner)
+    // ✅ BATCH create/update/delete (only owner, one transaction)
+    @PostMapping("/batch")
+    public ResponseEntity<?> batch(@Valid @RequestBody NoteBatchRequest req) {
+        var operations = req.getOperations();
+        if (operations.size() > maxBatchSize) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("status", 400, "error", "batch_too_large", "maxSize", maxBatchSize));
+        }
+
+        // Validate everything up front - an invalid batch is rejected as a whole
+        var validation = noteBatchService.validate(operations);
+        if (validation.stream().anyMatch(r -> "invalid".equals(r.status()))) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("status", 400, "error", "validation_failed", "results", validation));
+        }
+
+        String username = currentUsername();
+        var userId = userRepository.findIdByUsername(username);
+        if (userId.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(Map.of("status", 404, "error", "user_not_found"));
+        }
+
+        var results = noteBatchService.apply(userId.get(), operations);
+        noteCache.evictList(username);
+        results.stream()
+                .filter(r -> r.id() != null && !NoteBatchService.OP_CREATE.equals(r.op()))
+                .forEach(r -> noteChanged(username, r.id()));
+        results.stream()
+                .filter(r -> r.id() != null && "ok".equals(r.status()))
+                .forEach(r -> noteEventBus.publish(username, switch (r.op()) {
+                    case NoteBatchService.OP_CREATE -> NoteEventBus.CREATED;
+                    case NoteBatchService.OP_DELETE -> NoteEventBus.DELETED;
+                    default -> NoteEventBus.UPDATED;
+                }, r.id()));
+        boolean allOk = results.stream().allMatch(r -> "ok".equals(r.status()));
+
+        return ResponseEntity.ok(Map.of("ok", allOk, "results", results));
+    }
+
+    // ✅ GET note by id (only owner, ?fields=..., JSON, CBOR or Smile by Accept; conditional: If-None-Match is answered from the version alone)
     @GetMapping("/{id}")
-    public ResponseEntity<?> getOne(@PathVariable Long id) {
+    public ResponseEntity<?> getOne(@PathVariable Long id,
+                                    @RequestParam(required = false) String fields,
+                                    @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch,
+                                    @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        NoteFields noteFields;
+        try {
+            noteFields = NoteFields.parse(fields);
+        } catch (IllegalArgumentException e) {
+            return invalidFields(e);
+        }
+
+        String username = currentUsername();
+
+        // One indexed lookup decides 404 / 304 / cache hit before any content is read
+        var version = noteVersionLookups.load(new NoteKey(username, id),
+                () -> noteRepository.findVersionOwned(id, username));
+        if (version.isEmpty()) {
+            return noteNotFound();
+        }
+
+        ResponseFormat format = ResponseFormat.negotiate(accept);
+        String variant = noteFields.key() + format.suffix();
+        String etag = noteETag(version.get(), noteFields, format);
+        if (etagMatches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).varyBy(HttpHeaders.ACCEPT).build();
+        }
+
+        // Cache miss: callers racing for the same note/variant/version share one load
+        byte[] body = noteCache.note(username, id, variant, version.get(), () ->
+                noteLoads.load(new NoteLoadKey(username, id, variant, version.get()), () ->
+                        (noteFields.includes(NoteFields.Field.CONTENT)
+                                ? noteRepository.findViewOwned(id, username)
+                                : noteRepository.findSummaryOwned(id, username))
+                                .map(view -> noteResponseWriter.writeNote(view, noteFields, format)))
+                        .orElse(null));
+        if (body == null) {
+            return noteNotFound();
+        }
+
+        return ResponseEntity.ok().eTag(etag).varyBy(HttpHeaders.ACCEPT).contentType(format.mediaType()).body(body);
+    }
+
+    // ✅ GET note body as text (only owner), supports a single HTTP Range; large bodies are streamed chunk by chunk
+    @GetMapping("/{id}/content")
+    public ResponseEntity<StreamingResponseBody> getContent(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.RANGE, required = false) String range) {
         String username = currentUsername();
 
-        return noteRepository.findByIdAndUserUsername(id, username)
-                .<ResponseEntity<?>>map(note -> ResponseEntity.ok(Map.of(
-                        "id", note.getId(),
-                        "title", note.getTitle(),
-                        "content", note.getContent()
-                )))
-                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND)
-                        .body(Map.of("status", 404, "error", "note_not_found")));
+        var version = noteRepository.findVersionOwned(id, username);
+        if (version.isEmpty()) {
+            return streamedError(HttpStatus.NOT_FOUND, "note_not_found");
+        }
+        String etag = "\"b" + version.get() + "\"";
+
+        var blob = noteContentStore.info(id);
+        if (blob.isPresent()) {
+            return contentResponse(blob.get().size(), range, etag,
+                    (start, end, out) -> noteContentStore.stream(id, blob.get(), start, end, out));
+        }
+
+        // Inline bodies are small by definition (app.notes.content.inline-max-bytes)
+        String content = noteRepository.findViewOwned(id, username).map(NoteView::content).orElse(null);
+        byte[] bytes = content == null ? new byte[0] : content.getBytes(StandardCharsets.UTF_8);
+        return contentResponse(bytes.length, range, etag,
+                (start, end, out) -> out.write(bytes, (int) start, (int) (end - start + 1)));
+    }
+
+    // ✅ PUT note body as a raw stream (only owner) - not buffered in memory, large bodies go out-of-row
+    @PutMapping(value = "/{id}/content",
+            consumes = {MediaType.TEXT_PLAIN_VALUE, MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    public ResponseEntity<?> putContent(@PathVariable Long id, HttpServletRequest request) throws IOException {
+        String username = currentUsername();
+
+        if (noteRepository.findVersionOwned(id, username).isEmpty()) {
+            return noteNotFound();
+        }
+
+        long size;
+        try {
+            size = noteContentStore.write(id, request.getInputStream());
+        } catch (NoteContentStore.ContentTooLargeException e) {
+            return ResponseEntity.status(HttpStatus.CONTENT_TOO_LARGE)
+                    .body(Map.of("status", 413, "error", "content_too_large"));
+        }
+
+        noteChanged(username, id);
+        noteEventBus.publish(username, NoteEventBus.UPDATED, id);
+
+        return ResponseEntity.ok(Map.of("ok", true, "size", size));
     }
 
-    // ✅ UPDATE (only owner)
+    @FunctionalInterface
+    private interface ContentWriter {
+        void write(long start, long endInclusive, OutputStream out) throws IOException;
+    }
+
+    /**
+     * 200 with the whole body, or 206 for a single satisfiable range.
+     * Multi-range requests get the whole body (allowed by RFC 9110), unsatisfiable ones 416.
+     */
+    private static ResponseEntity<StreamingResponseBody> contentResponse(long size, String rangeHeader,
+                                                                         String etag, ContentWriter writer) {
+        long start = 0;
+        long end = size - 1;
+        HttpStatus status = HttpStatus.OK;
+
+        if (rangeHeader != null) {
+            try {
+                List<HttpRange> ranges = HttpRange.parseRanges(rangeHeader);
+                if (ranges.size() == 1) {
+                    start = ranges.get(0).getRangeStart(size);
+                    end = ranges.get(0).getRangeEnd(size);
+                    status = HttpStatus.PARTIAL_CONTENT;
+                }
+            } catch (IllegalArgumentException e) {
+                return rangeNotSatisfiable(size);
+            }
+            // HttpRange clamps the end to the body but not the start: a range starting at or
+            // past the end (or any range of an empty body) selects nothing
+            if (start > end) {
+                return rangeNotSatisfiable(size);
+            }
+        }
+
+        long from = start;
+        long to = end;
+        StreamingResponseBody body = out -> {
+            if (to >= from) {
+                writer.write(from, to, out);
+            }
+        };
+
+        var builder = ResponseEntity.status(status)
+                .eTag(etag)
+                .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+                .contentType(new MediaType(MediaType.TEXT_PLAIN, StandardCharsets.UTF_8))
+                .contentLength(Math.max(0, end - start + 1));
+        if (status == HttpStatus.PARTIAL_CONTENT) {
+            builder.header(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + size);
+        }
+        return builder.body(body);
+    }
+
+    private static ResponseEntity<StreamingResponseBody> rangeNotSatisfiable(long size) {
+        return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+                .header(HttpHeaders.CONTENT_RANGE, "bytes */" + size)
+                .build();
+    }
+
+    // The streaming return type needs a streaming body for errors too (same JSON shape as elsewhere)
+    private static ResponseEntity<StreamingResponseBody> streamedError(HttpStatus status, String error) {
+        byte[] json = ("{\"status\":" + status.value() + ",\"error\":\"" + error + "\"}")
+                .getBytes(StandardCharsets.UTF_8);
+        return ResponseEntity.status(status).contentType(MediaType.APPLICATION_JSON).body(out -> out.write(json));
+    }
+
+    private ResponseEntity<?> invalidFields(IllegalArgumentException e) {
+        return ResponseEntity.badRequest()
+                .body(Map.of("status", 400, "error", "invalid_fields", "message", e.getMessage()));
+    }
+
+    private ResponseEntity<?> noteNotFound() {
+        return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body(Map.of("status", 404, "error", "note_not_found"));
+    }
+
+    // Strong validators: the note version (matches what If-Match accepts) and the per-user collection version.
+    // Sparse fieldsets and binary formats are different representations, so both are part of the tag.
+    private static String noteETag(long version, NoteFields fields, ResponseFormat format) {
+        return "\"v" + version + variantSuffix(fields) + format.suffix() + "\"";
+    }
+
+    private static String collectionETag(long collectionVersion, NoteFields fields, ResponseFormat format) {
+        return "\"c" + collectionVersion + variantSuffix(fields) + format.suffix() + "\"";
+    }
+
+    private static String variantSuffix(NoteFields fields) {
+        return fields.isAll() ? "" : "-" + fields.key();
+    }
+
+    /**
+     * If-None-Match evaluation (RFC 9110: weak comparison, list of tags or "*").
+     */
+    static boolean etagMatches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String c = candidate.trim();
+            if (c.equals("*")) {
+                return true;
+            }
+            if (c.startsWith("W/")) {
+                c = c.substring(2);
+            }
+            if (c.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // ✅ UPDATE (only owner) - single ownership-checked statement
     @PutMapping("/{id}")
     public ResponseEntity<?> update(@PathVariable Long id,
+                                    @RequestHeader(value = "If-Match", required = false) String ifMatch,
                                     @Valid @RequestBody NoteRequest req) {
         String username = currentUsername();
+        Long expectedVersion = expectedVersion(ifMatch, id, username);
 
-        var opt = noteRepository.findByIdAndUserUsername(id, username);
-        if (opt.isEmpty()) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND)
-                    .body(Map.of("status", 404, "error", "note_not_found"));
+        int updated = noteRepository.updateOwned(id, username, req.getTitle(), req.getContent(), expectedVersion);
+        if (updated == 0) {
+            return mutationFailed(id, username, expectedVersion);
+        }
+
+        noteChanged(username, id);
+        noteEventBus.publish(username, NoteEventBus.UPDATED, id);
+
+        return ResponseEntity.ok(Map.of("ok", true));
+    }
+
+    // ✅ PATCH (only owner) - partial update, null fields are left unchanged
+    @PatchMapping("/{id}")
+    public ResponseEntity<?> patch(@PathVariable Long id,
+                                   @RequestHeader(value = "If-Match", required = false) String ifMatch,
+                                   @Valid @RequestBody NotePatchRequest req) {
+        if (req.isEmpty()) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("status", 400, "error", "empty_patch"));
+        }
+
+        String username = currentUsername();
+        Long expectedVersion = expectedVersion(ifMatch, id, username);
+
+        int updated = noteRepository.patchOwned(id, username, req.getTitle(), req.getContent(), expectedVersion);
+        if (updated == 0) {
+            return mutationFailed(id, username, expectedVersion);
         }
 
-        var note = opt.get();
-        note.setTitle(req.getTitle());
-        note.setContent(req.getContent());
-        noteRepository.save(note);
+        noteChanged(username, id);
+        noteEventBus.publish(username, NoteEventBus.UPDATED, id);
 
         return ResponseEntity.ok(Map.of("ok", true));
     }
 
-    // ✅ DELETE (only owner)
+    // ✅ DELETE (only owner) - single ownership-checked statement
     @DeleteMapping("/{id}")
-    public ResponseEntity<?> delete(@PathVariable Long id) {
+    public ResponseEntity<?> delete(@PathVariable Long id,
+                                    @RequestHeader(value = "If-Match", required = false) String ifMatch) {
         String username = currentUsername();
+        Long expectedVersion = expectedVersion(ifMatch, id, username);
 
-        var opt = noteRepository.findByIdAndUserUsername(id, username);
-        if (opt.isEmpty()) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND)
-                    .body(Map.of("status", 404, "error", "note_not_found"));
+        int deleted = noteRepository.deleteOwned(id, username, expectedVersion);
+        if (deleted == 0) {
+            return mutationFailed(id, username, expectedVersion);
         }
 
-        noteRepository.delete(opt.get());
+        noteChanged(username, id);
+        noteEventBus.publish(username, NoteEventBus.DELETED, id);
 
         return ResponseEntity.ok(Map.of("ok", true));
     }
-}
 
+    /**
+     * Called after a write to a note has committed: drops its cached bodies and detaches
+     * in-flight reads, which may have observed the previous version.
+     */
+    private void noteChanged(String username, Long id) {
+        noteCache.evictNote(username, id);
+        noteVersionLookups.forget(new NoteKey(username, id));
+        noteLoads.forgetIf(key -> key.username().equals(username) && key.id().equals(id));
+    }
+
+    /**
+     * Builds the response for a mutation that touched no rows.
+     * Without a version precondition that can only mean "not found (for this owner)";
+     * with one, a second lookup (failure path only) tells 404 from 412.
+     */
+    private ResponseEntity<?> mutationFailed(Long id, String username, Long expectedVersion) {
+        if (expectedVersion != null && noteRepository.existsByIdAndUserUsername(id, username)) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED)
+                    .body(Map.of("status", 412, "error", "version_mismatch"));
+        }
+        return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body(Map.of("status", 404, "error", "note_not_found"));
+    }
+
+    /**
+     * Turns an If-Match header into the version the conditional statement must see:
+     * <ul>
+     *   <li>absent or "*": null, the write only requires the note to exist (404 otherwise)</li>
+     *   <li>one note version ("3", "v3", or a note ETag such as "v3-id,title"): that version</li>
+     *   <li>several versions: the current one if it is listed (the statement still re-checks it)</li>
+     *   <li>anything else (a collection tag "c5", a weak tag, garbage): {@link #NO_VERSION},
+     *       so a client that asked for a conditional write never gets an unconditional one</li>
+     * </ul>
+     */
+    private Long expectedVersion(String ifMatch, Long id, String username) {
+        if (ifMatch == null) {
+            return null;
+        }
+        List<Long> versions = new ArrayList<>();
+        for (String tag : entityTags(ifMatch)) {
+            if (tag.equals("*")) {
+                return null;
+            }
+            Long version = parseVersion(tag);
+            if (version != null) {
+                versions.add(version);
+            }
+        }
+
+        if (versions.isEmpty()) {
+            return NO_VERSION;
+        }
+        if (versions.size() == 1) {
+            return versions.get(0);
+        }
+        return noteRepository.findVersionOwned(id, username)
+                .map(current -> versions.contains(current) ? current : NO_VERSION)
+                .orElse(null);
+    }
+
+    /**
+     * Splits an If-Match list into entity tags. Commas inside quotes belong to the tag
+     * (sparse-fieldset ETags such as "v3-id,title").
+     */
+    static List<String> entityTags(String header) {
+        List<String> tags = new ArrayList<>();
+        StringBuilder tag = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < header.length(); i++) {
+            char ch = header.charAt(i);
+            if (ch == '"') {
+                quoted = !quoted;
+            } else if (ch == ',' && !quoted) {
+                addTag(tags, tag);
+                continue;
+            }
+            tag.append(ch);
+        }
+        addTag(tags, tag);
+        return tags;
+    }
+
+    private static void addTag(List<String> tags, StringBuilder tag) {
+        String t = tag.toString().trim();
+        if (!t.isEmpty()) {
+            tags.add(t);
+        }
+        tag.setLength(0);
+    }
+
+    /**
+     * Parses one entity tag of If-Match as a note version (If-Match uses strong comparison,
+     * so weak tags never match). Returns null when it is not a note version.
+     */
+    static Long parseVersion(String tag) {
+        Matcher m = NOTE_VERSION_TAG.matcher(tag.trim());
+        return m.matches() ? Long.valueOf(m.group(2)) : null;
+    }
+}
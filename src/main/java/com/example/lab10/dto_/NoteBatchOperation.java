@@ -0,0 +1,25 @@
+package com.example.lab10.dto_;
+
+/**
+ * One operation inside a POST /notes/batch request.
+ * op = create | update | delete. Field rules per op are checked by NoteBatchService.
+ */
+public class NoteBatchOperation {
+
+    private String op;
+    private Long id;
+    private String title;
+    private String content;
+
+    public String getOp() { return op; }
+    public void setOp(String op) { this.op = op; }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getTitle() { return title; }
+    public void setTitle(String title) { this.title = title; }
+
+    public String getContent() { return content; }
+    public void setContent(String content) { this.content = content; }
+}
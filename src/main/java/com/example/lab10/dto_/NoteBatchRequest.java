@@ -0,0 +1,17 @@
+package com.example.lab10.dto_;
+
+import jakarta.validation.constraints.NotEmpty;
+
+import java.util.List;
+
+/**
+ * DTO for POST /notes/batch - a list of mixed create/update/delete operations.
+ */
+public class NoteBatchRequest {
+
+    @NotEmpty(message = "operations must not be empty")
+    private List<NoteBatchOperation> operations;
+
+    public List<NoteBatchOperation> getOperations() { return operations; }
+    public void setOperations(List<NoteBatchOperation> operations) { this.operations = operations; }
+}
@@ -0,0 +1,90 @@
+package com.example.lab10.dto_;
+
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Sparse fieldset requested with ?fields=id,title,... on the notes endpoints.
+ */
+public final class NoteFields {
+
+    public enum Field { ID, TITLE, CONTENT, VERSION }
+
+    public static final NoteFields ALL = new NoteFields(EnumSet.allOf(Field.class));
+
+    private final Set<Field> fields;
+    private final String key;
+
+    private NoteFields(Set<Field> fields) {
+        this.fields = fields;
+        this.key = fields.stream()
+                .map(f -> f.name().toLowerCase(Locale.ROOT))
+                .collect(Collectors.joining("."));
+    }
+
+    /**
+     * Parses a comma-separated field list. Null/blank means all fields.
+     *
+     * @throws IllegalArgumentException on unknown field names
+     */
+    public static NoteFields parse(String param) {
+        if (param == null || param.isBlank()) {
+            return ALL;
+        }
+
+        EnumSet<Field> fields = EnumSet.noneOf(Field.class);
+        for (String name : param.split(",")) {
+            String trimmed = name.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            try {
+                fields.add(Field.valueOf(trimmed.toUpperCase(Locale.ROOT)));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("unknown field: " + trimmed);
+            }
+        }
+
+        if (fields.isEmpty()) {
+            return ALL;
+        }
+        return fields.size() == Field.values().length ? ALL : new NoteFields(fields);
+    }
+
+    public boolean includes(Field field) {
+        return fields.contains(field);
+    }
+
+    public boolean isAll() {
+        return this == ALL;
+    }
+
+    /**
+     * Canonical, order-independent name of the fieldset (e.g. "id.title"),
+     * used in cache keys and ETags.
+     */
+    public String key() {
+        return key;
+    }
+
+    /**
+     * Builds the response object containing only the requested fields.
+     */
+    public Map<String, Object> toMap(NoteView note) {
+        Map<String, Object> m = new HashMap<>();
+        if (includes(Field.ID)) m.put("id", note.id());
+        if (includes(Field.TITLE)) m.put("title", note.title());
+        if (includes(Field.CONTENT)) {
+            m.put("content", note.content());
+            if (note.contentExternal()) {
+                m.put("contentUrl", "/notes/" + note.id() + "/content");
+            }
+        }
+        if (includes(Field.VERSION)) m.put("version", note.version());
+        return m;
+    }
+}
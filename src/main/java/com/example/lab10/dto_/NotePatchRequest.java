@@ -0,0 +1,25 @@
+package com.example.lab10.dto_;
+
+import jakarta.validation.constraints.Size;
+
+/**
+ * DTO for PATCH /notes/{id}. Only non-null fields are changed.
+ */
+public class NotePatchRequest {
+
+    @Size(min = 3, max = 100)
+    private String title;
+
+    @Size(max = 500)
+    private String content;
+
+    public String getTitle() { return title; }
+    public void setTitle(String title) { this.title = title; }
+
+    public String getContent() { return content; }
+    public void setContent(String content) { this.content = content; }
+
+    public boolean isEmpty() {
+        return title == null && content == null;
+    }
+}
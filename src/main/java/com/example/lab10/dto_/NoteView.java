@@ -0,0 +1,14 @@
+package com.example.lab10.dto_;
+
+/**
+ * Read projection of a note (JPQL constructor expression).
+ * content is null when the query did not select it, or when the body is stored
+ * out-of-row (contentExternal = true, read it via GET /notes/{id}/content).
+ */
+public record NoteView(Long id, String title, String content, long version, boolean contentExternal) {
+
+    // Used by content-less projections so the content column is never read
+    public NoteView(Long id, String title, long version) {
+        this(id, title, null, version, false);
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.lab10.dto_;
+
+import java.util.List;
+
+/**
+ * Current user as returned by GET /api/profile.
+ */
+public record ProfileResponse(String username, List<String> roles) {}
@@ -2,51 +2,12 @@ package com.example.lab10.dto_;
 
 /**
  * DTO for token responses containing both access and refresh tokens.
+ *
+ * @param expiresIn access token lifetime in seconds
  */
-public class TokenResponse {
-
-    private String accessToken;
-    private String refreshToken;
-    private String tokenType = "Bearer";
-    private long expiresIn; // seconds
-
-    public TokenResponse() {}
+public record TokenResponse(String accessToken, String refreshToken, String tokenType, long expiresIn) {
 
     public TokenResponse(String accessToken, String refreshToken, long expiresIn) {
-        this.accessToken = accessToken;
-        this.refreshToken = refreshToken;
-        this.expiresIn = expiresIn;
-    }
-
-    public String getAccessToken() {
-        return accessToken;
-    }
-
-    public void setAccessToken(String accessToken) {
-        this.accessToken = accessToken;
-    }
-
-    public String getRefreshToken() {
-        return refreshToken;
-    }
-
-    public void setRefreshToken(String refreshToken) {
-        this.refreshToken = refreshToken;
-    }
-
-    public String getTokenType() {
-        return tokenType;
-    }
-
-    public void setTokenType(String tokenType) {
-        this.tokenType = tokenType;
-    }
-
-    public long getExpiresIn() {
-        return expiresIn;
-    }
-
-    public void setExpiresIn(long expiresIn) {
-        this.expiresIn = expiresIn;
+        this(accessToken, refreshToken, "Bearer", expiresIn);
     }
 }
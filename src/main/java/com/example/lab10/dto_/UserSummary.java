@@ -0,0 +1,13 @@
+package com.example.lab10.dto_;
+
+import com.example.lab10.entity.AppUser;
+
+/**
+ * User as listed by GET /api/users (no password, no internal counters).
+ */
+public record UserSummary(Long id, String username, String email, String role) {
+
+    public static UserSummary of(AppUser user) {
+        return new UserSummary(user.getId(), user.getUsername(), user.getEmail(), user.getRole());
+    }
+}
@@ -1,6 +1,7 @@
 package com.example.lab10.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
 
 @Entity
 @Table(name = "users")
@@ -22,6 +23,11 @@ public class AppUser {
     @Column(nullable = false)
     private String role; // ROLE_USER / ROLE_ADMIN
 
+    // Bumped by database triggers on every notes write (see V8 migration), never by JPA
+    @Column(name = "notes_version", nullable = false, insertable = false, updatable = false)
+    @ColumnDefault("0")
+    private long notesVersion;
+
     public Long getId() { return id; }
 
     public String getUsername() { return username; }
@@ -35,4 +41,6 @@ public class AppUser {
 
     public String getRole() { return role; }
     public void setRole(String role) { this.role = role; }
+
+    public long getNotesVersion() { return notesVersion; }
 }
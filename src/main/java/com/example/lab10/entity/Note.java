@@ -2,6 +2,7 @@ package com.example.lab10.entity;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
 
 @Entity
 @Table(name = "notes")
@@ -19,9 +20,19 @@ public class Note {
     @Column(nullable = false)
     private String title;
 
+    // Read paths that don't need the body use NoteView projections instead of the entity
     @Column
     private String content;
 
+    // true = body lives in note_blobs / note_blob_chunks (see NoteContentStore), content is null
+    @Column(name = "content_external", nullable = false)
+    @ColumnDefault("0")
+    private boolean contentExternal;
+
+    @Version
+    @Column(nullable = false)
+    private long version;
+
     public Long getId() { return id; }
 
     public AppUser getUser() { return user; }
@@ -32,4 +43,8 @@ public class Note {
 
     public String getContent() { return content; }
     public void setContent(String content) { this.content = content; }
+
+    public boolean isContentExternal() { return contentExternal; }
+
+    public long getVersion() { return version; }
 }
@@ -1,12 +1,75 @@
 package com.example.lab10.repo;
 
+import com.example.lab10.dto_.NoteView;
 import com.example.lab10.entity.Note;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface NoteRepository extends JpaRepository<Note, Long> {
     List<Note> findByUserUsername(String username);
     Optional<Note> findByIdAndUserUsername(Long id, String username);
+    boolean existsByIdAndUserUsername(Long id, String username);
+
+    // Read projections: select only the columns a response needs (no entity, no dirty checking)
+    @Query("SELECT new com.example.lab10.dto_.NoteView(n.id, n.title, n.content, n.version, n.contentExternal) " +
+           "FROM Note n WHERE n.user.username = :username ORDER BY n.id")
+    List<NoteView> findViewsByUsername(String username);
+
+    @Query("SELECT new com.example.lab10.dto_.NoteView(n.id, n.title, n.version) " +
+           "FROM Note n WHERE n.user.username = :username ORDER BY n.id")
+    List<NoteView> findSummariesByUsername(String username);
+
+    @Query("SELECT new com.example.lab10.dto_.NoteView(n.id, n.title, n.content, n.version, n.contentExternal) " +
+           "FROM Note n WHERE n.id = :id AND n.user.username = :username")
+    Optional<NoteView> findViewOwned(Long id, String username);
+
+    @Query("SELECT new com.example.lab10.dto_.NoteView(n.id, n.title, n.version) " +
+           "FROM Note n WHERE n.id = :id AND n.user.username = :username")
+    Optional<NoteView> findSummaryOwned(Long id, String username);
+
+    // Validator lookup for conditional GETs - never loads title/content
+    @Query("SELECT n.version FROM Note n " +
+           "WHERE n.id = :id AND n.user.id = (SELECT u.id FROM AppUser u WHERE u.username = :username)")
+    Optional<Long> findVersionOwned(Long id, String username);
+
+    // Set-based ownership check (one query for a whole batch)
+    @Query("SELECT n.id FROM Note n WHERE n.user.id = :userId AND n.id IN :ids")
+    List<Long> findIdsOwnedBy(Long userId, Collection<Long> ids);
+
+    // Ownership-checked mutations: one statement, affected row count tells 404 vs success.
+    // expectedVersion = null skips the optimistic check.
+
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Note n SET n.title = :title, n.content = :content, n.contentExternal = false, " +
+           "n.version = n.version + 1 " +
+           "WHERE n.id = :id " +
+           "AND n.user.id = (SELECT u.id FROM AppUser u WHERE u.username = :username) " +
+           "AND (:expectedVersion IS NULL OR n.version = :expectedVersion)")
+    int updateOwned(Long id, String username, String title, String content, Long expectedVersion);
+
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Note n SET n.title = COALESCE(:title, n.title), " +
+           "n.content = COALESCE(:content, n.content), " +
+           "n.contentExternal = CASE WHEN :content IS NULL THEN n.contentExternal ELSE false END, " +
+           "n.version = n.version + 1 " +
+           "WHERE n.id = :id " +
+           "AND n.user.id = (SELECT u.id FROM AppUser u WHERE u.username = :username) " +
+           "AND (:expectedVersion IS NULL OR n.version = :expectedVersion)")
+    int patchOwned(Long id, String username, String title, String content, Long expectedVersion);
+
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("DELETE FROM Note n " +
+           "WHERE n.id = :id " +
+           "AND n.user.id = (SELECT u.id FROM AppUser u WHERE u.username = :username) " +
+           "AND (:expectedVersion IS NULL OR n.version = :expectedVersion)")
+    int deleteOwned(Long id, String username, Long expectedVersion);
 }
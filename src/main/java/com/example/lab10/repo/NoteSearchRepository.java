@@ -0,0 +1,85 @@
+package com.example.lab10.repo;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Full-text search over notes using the SQLite FTS5 index (see V6 migration).
+ * Results are ranked with BM25 (title weighted above content) and always
+ * scoped to the owner's notes.
+ */
+@Repository
+public class NoteSearchRepository {
+
+    // Title matches count 10x more than content matches
+    private static final String SEARCH_SQL =
+            "SELECT n.id, n.title, " +
+            "       snippet(notes_fts, -1, '**', '**', '…', 12) AS snippet, " +
+            "       bm25(notes_fts, 10.0, 1.0) AS score " +
+            "FROM notes_fts " +
+            "JOIN notes n ON n.id = notes_fts.rowid " +
+            "JOIN users u ON u.id = n.user_id " +
+            "WHERE notes_fts MATCH ? AND u.username = ? " +
+            "ORDER BY score " +
+            "LIMIT ? OFFSET ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public NoteSearchRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Returns up to {@code limit} hits for the owner, best match first.
+     * The free-text query is converted with {@link #toMatchExpression(String)}.
+     */
+    public List<SearchHit> search(String username, String query, int limit, long offset) {
+        String match = toMatchExpression(query);
+        if (match.isEmpty()) {
+            return List.of();
+        }
+
+        return jdbcTemplate.query(SEARCH_SQL,
+                (rs, rowNum) -> new SearchHit(
+                        rs.getLong("id"),
+                        rs.getString("title"),
+                        rs.getString("snippet"),
+                        rs.getDouble("score")),
+                match, username, limit, offset);
+    }
+
+    /**
+     * Converts user input into a safe FTS5 MATCH expression.
+     * Every term is quoted (so FTS5 operators in user input are treated as text),
+     * terms are AND-ed, and the last term is a prefix match for search-as-you-type.
+     */
+    public static String toMatchExpression(String query) {
+        if (query == null) {
+            return "";
+        }
+
+        List<String> terms = new ArrayList<>();
+        for (String raw : query.trim().split("\\s+")) {
+            String term = raw.replace("\"", "");
+            if (!term.isEmpty()) {
+                terms.add("\"" + term + "\"");
+            }
+        }
+
+        if (terms.isEmpty()) {
+            return "";
+        }
+
+        int last = terms.size() - 1;
+        terms.set(last, terms.get(last) + "*");
+        return String.join(" ", terms);
+    }
+
+    /**
+     * One ranked search result. Lower score = better match (BM25 in FTS5 is negative).
+     */
+    public record SearchHit(long id, String title, String snippet, double score) {}
+}
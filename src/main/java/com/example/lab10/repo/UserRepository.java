@@ -2,6 +2,7 @@ package com.example.lab10.repo;
 
 import com.example.lab10.entity.AppUser;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 import java.util.Optional;
 
@@ -9,4 +10,11 @@ public interface UserRepository extends JpaRepository<AppUser, Long> {
     Optional<AppUser> findByUsername(String username);
     boolean existsByUsername(String username);
     boolean existsByEmail(String email);
+
+    @Query("SELECT u.id FROM AppUser u WHERE u.username = :username")
+    Optional<Long> findIdByUsername(String username);
+
+    // Collection version of the user's notes (maintained by triggers, see V8 migration)
+    @Query("SELECT u.notesVersion FROM AppUser u WHERE u.username = :username")
+    Optional<Long> findNotesVersionByUsername(String username);
 }
@@ -1,21 +1,30 @@
 package com.example.lab10.security;
 
+import com.example.lab10.entity.AppUser;
 import com.example.lab10.repo.UserRepository;
+import com.example.lab10.service.SingleFlight;
+import com.example.lab10.service.SingleFlightRegistry;
 import org.springframework.security.core.userdetails.*;
 import org.springframework.stereotype.Service;
 
+import java.util.Optional;
+
 @Service
 public class CustomUserDetailsService implements UserDetailsService {
 
     private final UserRepository userRepository;
+    private final SingleFlight<String, Optional<AppUser>> userLookups;
 
-    public CustomUserDetailsService(UserRepository userRepository) {
+    public CustomUserDetailsService(UserRepository userRepository, SingleFlightRegistry singleFlights) {
         this.userRepository = userRepository;
+        this.userLookups = singleFlights.get("users.byUsername");
     }
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        var user = userRepository.findByUsername(username)
+        // Only the entity lookup is shared: UserDetails is built per caller because
+        // Spring Security erases its password after authentication
+        var user = userLookups.load(username, () -> userRepository.findByUsername(username))
                 .orElseThrow(() -> new UsernameNotFoundException("User not found"));
 
         return User.withUsername(user.getUsername())
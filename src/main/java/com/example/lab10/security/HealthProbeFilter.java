@@ -0,0 +1,110 @@
+package com.example.lab10.security;
+
+import com.example.lab10.service.ReadinessService;
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Load-balancer probes, answered before rate limiting and the Spring Security chain.
+ *
+ * GET/HEAD /health/live  - 200 while the process serves requests.
+ * GET/HEAD /health/ready - 200 when {@link ReadinessService} is ready and the node isn't
+ *                          saturated, 503 otherwise.
+ *
+ * Bodies are precomputed bytes; a probe does no lookup, parsing or allocation of its own.
+ * This filter also counts in-flight requests: above app.health.max-in-flight the node
+ * reports not ready so the balancer sheds load to other nodes.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class HealthProbeFilter implements Filter {
+
+    public static final String LIVE_PATH = "/health/live";
+    public static final String READY_PATH = "/health/ready";
+
+    private static final byte[] LIVE = "{\"status\":\"UP\"}".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] SATURATED =
+            "{\"status\":\"DOWN\",\"checks\":{\"load\":\"SATURATED\"}}".getBytes(StandardCharsets.UTF_8);
+
+    private final ReadinessService readiness;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    @Value("${app.health.max-in-flight:200}")
+    private int maxInFlight;
+
+    public HealthProbeFilter(ReadinessService readiness) {
+        this.readiness = readiness;
+    }
+
+    @Override
+    public void doFilter(ServletRequest req, ServletResponse res, FilterChain chain)
+            throws IOException, ServletException {
+
+        HttpServletRequest request = (HttpServletRequest) req;
+        String path = request.getRequestURI();
+
+        if (path.startsWith("/health/")) {
+            String method = request.getMethod();
+            boolean head = "HEAD".equals(method);
+            if (head || "GET".equals(method)) {
+                if (LIVE_PATH.equals(path)) {
+                    write((HttpServletResponse) res, 200, LIVE, head);
+                    return;
+                }
+                if (READY_PATH.equals(path)) {
+                    ready((HttpServletResponse) res, head);
+                    return;
+                }
+            }
+        }
+
+        inFlight.incrementAndGet();
+        try {
+            chain.doFilter(req, res);
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    private void ready(HttpServletResponse response, boolean head) throws IOException {
+        if (!readiness.isReady()) {
+            write(response, 503, readiness.body(), head);
+        } else if (inFlight.get() >= maxInFlight) {
+            write(response, 503, SATURATED, head);
+        } else {
+            write(response, 200, readiness.body(), head);
+        }
+    }
+
+    private static void write(HttpServletResponse response, int status, byte[] body, boolean head)
+            throws IOException {
+        response.setStatus(status);
+        response.setContentType("application/json");
+        response.setHeader("Cache-Control", "no-store");
+        response.setContentLength(body.length);
+        if (!head) {
+            response.getOutputStream().write(body);
+        }
+    }
+
+    /**
+     * Requests currently inside the filter chain (async requests such as SSE streams
+     * count only while their initial dispatch runs).
+     */
+    public int inFlight() {
+        return inFlight.get();
+    }
+}
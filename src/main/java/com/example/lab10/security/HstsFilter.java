@@ -1,12 +1,12 @@
 package com.example.lab10.security;
 
+import jakarta.annotation.PostConstruct;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Profile;
-import org.springframework.core.Ordered;
 import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -21,11 +21,13 @@ import java.io.IOException;
  * - Only access the site via HTTPS
  * - Automatically convert http:// requests to https://
  * - Refuse to connect if certificate is invalid
+ *
+ * Runs as a stage of {@link RequestPipelineFilter}; the header value is built once at startup.
  */
 @Component
 @Profile("https")
-@Order(Ordered.HIGHEST_PRECEDENCE + 1)
-public class HstsFilter extends OncePerRequestFilter {
+@Order(10)
+public class HstsFilter extends OncePerRequestFilter implements RequestStage {
 
     // max-age in seconds (1 year = 31536000 seconds)
     @Value("${security.hsts.max-age:31536000}")
@@ -37,28 +39,40 @@ public class HstsFilter extends OncePerRequestFilter {
     @Value("${security.hsts.preload:false}")
     private boolean preload;
 
+    private String headerValue;
+
+    @PostConstruct
+    void init() {
+        StringBuilder value = new StringBuilder();
+        value.append("max-age=").append(maxAge);
+        
+        if (includeSubDomains) {
+            value.append("; includeSubDomains");
+        }
+        
+        if (preload) {
+            value.append("; preload");
+        }
+        
+        headerValue = value.toString();
+    }
+
     @Override
     protected void doFilterInternal(HttpServletRequest request,
                                     HttpServletResponse response,
                                     FilterChain filterChain)
             throws ServletException, IOException {
 
+        apply(request, response, RequestStage.routeOf(request));
+        filterChain.doFilter(request, response);
+    }
+
+    @Override
+    public boolean apply(HttpServletRequest request, HttpServletResponse response, RequestRoute route) {
         // Only add HSTS header for HTTPS requests
         if (request.isSecure()) {
-            StringBuilder headerValue = new StringBuilder();
-            headerValue.append("max-age=").append(maxAge);
-            
-            if (includeSubDomains) {
-                headerValue.append("; includeSubDomains");
-            }
-            
-            if (preload) {
-                headerValue.append("; preload");
-            }
-            
-            response.setHeader("Strict-Transport-Security", headerValue.toString());
+            response.setHeader("Strict-Transport-Security", headerValue);
         }
-
-        filterChain.doFilter(request, response);
+        return true;
     }
 }
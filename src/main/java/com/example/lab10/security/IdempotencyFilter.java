@@ -0,0 +1,258 @@
+package com.example.lab10.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Idempotency-Key handling for retried POSTs (POST /notes, /notes/batch, /auth/register).
+ *
+ * The first response per (user or client IP, method, path, key) is stored and replayed
+ * to retries without running the handler again (marked with Idempotent-Replayed: true).
+ * Runs after the Spring Security chain, so the authenticated user is known here.
+ * Reusing a key with a different body is rejected with 422.
+ */
+@Component
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdempotencyFilter.class);
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    // Not replayed: per-response or per-connection headers
+    private static final Set<String> SKIPPED_HEADERS = Set.of("set-cookie", "date", "content-length",
+            "transfer-encoding", "connection");
+
+    private final IdempotencyStore store;
+
+    @Value("${app.idempotency.paths:/notes,/notes/batch,/auth/register}")
+    private Set<String> paths;
+
+    @Value("${app.idempotency.wait-timeout-ms:10000}")
+    private long waitTimeoutMillis;
+
+    // Must fit the largest valid /notes/batch body (see application.properties)
+    @Value("${app.idempotency.max-body-bytes:1048576}")
+    private int maxBodyBytes;
+
+    public IdempotencyFilter(IdempotencyStore store) {
+        this.store = store;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getHeader(HEADER) == null
+                || !"POST".equals(request.getMethod())
+                || !paths.contains(request.getRequestURI());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain)
+            throws ServletException, IOException {
+
+        String idempotencyKey = request.getHeader(HEADER).trim();
+        if (idempotencyKey.isEmpty() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            writeError(response, HttpStatus.BAD_REQUEST, "invalid_idempotency_key");
+            return;
+        }
+
+        byte[] body = request.getInputStream().readNBytes(maxBodyBytes + 1);
+        if (body.length > maxBodyBytes) {
+            writeError(response, HttpStatus.CONTENT_TOO_LARGE, "idempotent_body_too_large");
+            return;
+        }
+
+        String key = scope(request) + " " + request.getMethod() + " " + request.getRequestURI() + " " + idempotencyKey;
+        String fingerprint = sha256(body);
+
+        IdempotencyStore.Reservation reservation = store.reserve(key, fingerprint);
+        if (!reservation.owner()) {
+            replayOrReject(reservation.entry(), fingerprint, response);
+            return;
+        }
+
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        boolean stored = false;
+        try {
+            filterChain.doFilter(new CachedBodyRequest(request, body), wrapper);
+
+            // Server errors are not stored: the client's retry should run again
+            if (wrapper.getStatus() < 500) {
+                store.complete(reservation.entry(), new IdempotencyStore.StoredResponse(
+                        wrapper.getStatus(), replayableHeaders(wrapper), wrapper.getContentAsByteArray()));
+                stored = true;
+            }
+        } finally {
+            if (!stored) {
+                store.abandon(key, reservation.entry());
+            }
+            wrapper.copyBodyToResponse();
+        }
+    }
+
+    private void replayOrReject(IdempotencyStore.Entry entry, String fingerprint, HttpServletResponse response)
+            throws IOException {
+        if (!entry.fingerprint().equals(fingerprint)) {
+            writeError(response, HttpStatus.UNPROCESSABLE_CONTENT, "idempotency_key_reused");
+            return;
+        }
+
+        // Concurrent duplicate: wait for the first request instead of running the handler twice
+        IdempotencyStore.StoredResponse stored = store.await(entry, waitTimeoutMillis);
+        if (stored == null) {
+            response.setHeader("Retry-After", "1");
+            writeError(response, HttpStatus.CONFLICT, "idempotent_request_in_progress");
+            return;
+        }
+
+        logger.debug("Replaying stored response for Idempotency-Key");
+        response.setStatus(stored.status());
+        stored.headers().forEach((name, values) -> {
+            response.setHeader(name, null);
+            values.forEach(value -> response.addHeader(name, value));
+        });
+        response.setHeader(REPLAYED_HEADER, "true");
+        response.setContentLength(stored.body().length);
+        response.getOutputStream().write(stored.body());
+    }
+
+    private static Map<String, List<String>> replayableHeaders(HttpServletResponse response) {
+        Map<String, List<String>> headers = new LinkedHashMap<>();
+        for (String name : response.getHeaderNames()) {
+            if (!SKIPPED_HEADERS.contains(name.toLowerCase())) {
+                headers.put(name, List.copyOf(response.getHeaders(name)));
+            }
+        }
+        if (response.getContentType() != null) {
+            headers.put("Content-Type", List.of(response.getContentType()));
+        }
+        return headers;
+    }
+
+    /**
+     * Keys are scoped per user; unauthenticated endpoints (register) are scoped per client IP.
+     * The IP is the connection's remote address, not X-Forwarded-For: a client choosing its own
+     * scope could read or poison another client's stored response.
+     */
+    private String scope(HttpServletRequest request) {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth != null && auth.isAuthenticated() && !(auth instanceof AnonymousAuthenticationToken)) {
+            return "user:" + auth.getName();
+        }
+        return "anon:" + request.getRemoteAddr();
+    }
+
+    private static String sha256(byte[] body) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(body));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void writeError(HttpServletResponse response, HttpStatus status, String error) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType("application/json");
+        response.getWriter().write("{\"status\":" + status.value() + ",\"error\":\"" + error + "\"}");
+    }
+
+    /**
+     * The body was already read for fingerprinting; hand the same bytes to the handler.
+     */
+    private static class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return in.read(b, off, len);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    // Everything is already in memory: the whole body is available right away
+                    try {
+                        listener.onDataAvailable();
+                        listener.onAllDataRead();
+                    } catch (IOException e) {
+                        listener.onError(e);
+                    }
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            return new BufferedReader(new InputStreamReader(getInputStream(),
+                    encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public int getContentLength() {
+            return body.length;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return body.length;
+        }
+    }
+}
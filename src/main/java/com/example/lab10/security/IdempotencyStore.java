@@ -0,0 +1,83 @@
+package com.example.lab10.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Bounded, TTL-expiring store of responses per Idempotency-Key.
+ *
+ * The first request for a key becomes the owner and runs the handler; duplicates that
+ * arrive while it is still running wait on the same future instead of running twice.
+ * Failed attempts are removed, so a retry after an error runs again.
+ */
+@Component
+public class IdempotencyStore {
+
+    private final Cache<String, Entry> cache;
+
+    public IdempotencyStore(@Value("${app.idempotency.ttl-seconds:86400}") long ttlSeconds,
+                            @Value("${app.idempotency.max-entries:10000}") long maxEntries) {
+        this.cache = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .maximumSize(maxEntries)
+                .build();
+    }
+
+    /**
+     * Claims {@code key} for a request with the given body fingerprint.
+     * If {@link Reservation#owner()} is true the caller must later call
+     * {@link #complete} or {@link #abandon}; otherwise it should {@link #await} the entry.
+     */
+    public Reservation reserve(String key, String fingerprint) {
+        Entry fresh = new Entry(fingerprint, new CompletableFuture<>());
+        Entry existing = cache.asMap().putIfAbsent(key, fresh);
+        return existing == null ? new Reservation(true, fresh) : new Reservation(false, existing);
+    }
+
+    public void complete(Entry entry, StoredResponse response) {
+        entry.response().complete(response);
+    }
+
+    /**
+     * Drops an unfinished entry (handler failed); waiting duplicates are released.
+     */
+    public void abandon(String key, Entry entry) {
+        cache.asMap().remove(key, entry);
+        entry.response().cancel(false);
+    }
+
+    /**
+     * Waits for the owner's response. Returns null if the owner failed or didn't finish in time.
+     */
+    public StoredResponse await(Entry entry, long timeoutMillis) {
+        try {
+            return entry.response().get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException | TimeoutException | CancellationException e) {
+            return null;
+        }
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    public record Reservation(boolean owner, Entry entry) {}
+
+    public record Entry(String fingerprint, CompletableFuture<StoredResponse> response) {}
+
+    public record StoredResponse(int status, Map<String, List<String>> headers, byte[] body) {}
+}
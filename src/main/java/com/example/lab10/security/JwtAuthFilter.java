@@ -1,5 +1,8 @@
 package com.example.lab10.security;
 
+import com.example.lab10.service.JfrEvents;
+import com.example.lab10.service.LatencyMetrics;
+import com.example.lab10.service.LogThrottle;
 import com.example.lab10.service.TokenService;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
@@ -16,23 +19,31 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.time.Duration;
 import java.util.List;
 
 /**
  * JWT Authentication Filter.
  * Validates access tokens and checks if they are blacklisted (logged out).
+ * Runs only inside the Spring Security chain; its servlet registration is disabled (WebConfig).
  */
 @Component
 public class JwtAuthFilter extends OncePerRequestFilter {
 
     private static final Logger logger = LoggerFactory.getLogger(JwtAuthFilter.class);
 
+    // Replayed or forged tokens arrive in bursts; log a sample, count the rest
+    private static final LogThrottle blacklistedLog = new LogThrottle("jwt.blacklisted", 10, Duration.ofSeconds(10));
+    private static final LogThrottle invalidLog = new LogThrottle("jwt.invalid", 10, Duration.ofSeconds(10));
+
     private final JwtUtil jwtUtil;
     private final TokenService tokenService;
+    private final LatencyMetrics metrics;
 
-    public JwtAuthFilter(JwtUtil jwtUtil, TokenService tokenService) {
+    public JwtAuthFilter(JwtUtil jwtUtil, TokenService tokenService, LatencyMetrics metrics) {
         this.jwtUtil = jwtUtil;
         this.tokenService = tokenService;
+        this.metrics = metrics;
     }
 
     @Override
@@ -48,14 +59,25 @@ public class JwtAuthFilter extends OncePerRequestFilter {
 
             try {
                 // Check if token is blacklisted (user logged out)
-                if (tokenService.isTokenBlacklisted(token)) {
-                    logger.warn("Blacklisted token used from IP: {}", request.getRemoteAddr());
+                JfrEvents.BlacklistCheck check = new JfrEvents.BlacklistCheck();
+                check.begin();
+                long start = System.nanoTime();
+                boolean blacklisted = tokenService.isTokenBlacklisted(token);
+                metrics.recordStage(LatencyMetrics.Stage.BLACKLIST, System.nanoTime() - start);
+                check.outcome = blacklisted ? "blacklisted" : "clean";
+                check.commit();
+                if (blacklisted) {
+                    long suppressed = blacklistedLog.tryAcquire();
+                    if (suppressed >= 0) {
+                        logger.warn("Blacklisted token used from IP: {} ({} similar suppressed)",
+                                request.getRemoteAddr(), suppressed);
+                    }
                     filterChain.doFilter(request, response);
                     return;
                 }
 
                 // Parse and validate the token
-                Claims claims = jwtUtil.parse(token);
+                Claims claims = verify(token);
                 String username = claims.getSubject();
 
                 @SuppressWarnings("unchecked")
@@ -74,11 +96,35 @@ public class JwtAuthFilter extends OncePerRequestFilter {
                 
             } catch (Exception e) {
                 // Invalid token (corrupted, wrong signature, etc.)
-                logger.warn("Invalid JWT token: {}", e.getMessage());
+                long suppressed = invalidLog.tryAcquire();
+                if (suppressed >= 0) {
+                    logger.warn("Invalid JWT token: {} ({} similar suppressed)", e.getMessage(), suppressed);
+                }
                 // Don't set authentication - will result in 401
             }
         }
 
         filterChain.doFilter(request, response);
     }
+
+    /**
+     * Signature check and claims parsing, timed whether or not the token is valid.
+     */
+    private Claims verify(String token) {
+        JfrEvents.JwtVerify event = new JfrEvents.JwtVerify();
+        event.begin();
+        long start = System.nanoTime();
+        event.outcome = "invalid";
+        try {
+            Claims claims = jwtUtil.parse(token);
+            event.outcome = "valid";
+            return claims;
+        } catch (ExpiredJwtException e) {
+            event.outcome = "expired";
+            throw e;
+        } finally {
+            metrics.recordStage(LatencyMetrics.Stage.JWT_VERIFY, System.nanoTime() - start);
+            event.commit();
+        }
+    }
 }
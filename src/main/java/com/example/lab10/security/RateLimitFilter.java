@@ -1,12 +1,12 @@
 package com.example.lab10.security;
 
+import com.example.lab10.service.JfrEvents;
+import com.example.lab10.service.LatencyMetrics;
+import com.example.lab10.service.SecurityEventAggregator;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-import org.springframework.core.Ordered;
 import org.springframework.core.annotation.Order;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Component;
@@ -16,18 +16,21 @@ import java.io.IOException;
 
 /**
  * Filter that applies rate limiting to incoming requests.
- * Runs before authentication to prevent brute-force attacks.
+ * Runs before authentication to prevent brute-force attacks
+ * (as a stage of {@link RequestPipelineFilter}).
  */
 @Component
-@Order(Ordered.HIGHEST_PRECEDENCE)
-public class RateLimitFilter extends OncePerRequestFilter {
-
-    private static final Logger logger = LoggerFactory.getLogger(RateLimitFilter.class);
+@Order(30)
+public class RateLimitFilter extends OncePerRequestFilter implements RequestStage {
 
     private final RateLimiter rateLimiter;
+    private final LatencyMetrics metrics;
+    private final SecurityEventAggregator securityEvents;
 
-    public RateLimitFilter(RateLimiter rateLimiter) {
+    public RateLimitFilter(RateLimiter rateLimiter, LatencyMetrics metrics, SecurityEventAggregator securityEvents) {
         this.rateLimiter = rateLimiter;
+        this.metrics = metrics;
+        this.securityEvents = securityEvents;
     }
 
     @Override
@@ -36,13 +39,27 @@ public class RateLimitFilter extends OncePerRequestFilter {
                                     FilterChain filterChain)
             throws ServletException, IOException {
 
-        String clientIp = getClientIp(request);
-        String path = request.getRequestURI();
+        if (apply(request, response, RequestStage.routeOf(request))) {
+            filterChain.doFilter(request, response);
+        }
+    }
+
+    @Override
+    public boolean apply(HttpServletRequest request, HttpServletResponse response, RequestRoute route)
+            throws IOException {
 
         // Apply stricter rate limiting to auth endpoints
-        if (path.startsWith("/auth/")) {
-            if (!rateLimiter.isAllowed(clientIp)) {
-                logger.warn("Rate limit exceeded for IP: {} on path: {}", clientIp, path);
+        if (route == RequestRoute.AUTH) {
+            String clientIp = getClientIp(request);
+            JfrEvents.RateLimitDecision decision = new JfrEvents.RateLimitDecision();
+            decision.begin();
+            long start = System.nanoTime();
+            boolean allowed = rateLimiter.isAllowed(clientIp);
+            metrics.recordStage(LatencyMetrics.Stage.RATE_LIMIT, System.nanoTime() - start);
+            decision.outcome = allowed ? "allowed" : "rejected";
+            decision.commit();
+            if (!allowed) {
+                securityEvents.record(SecurityEventAggregator.Type.RATE_LIMITED, null, request.getRemoteAddr());
                 
                 response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
                 response.setContentType("application/json");
@@ -55,11 +72,11 @@ public class RateLimitFilter extends OncePerRequestFilter {
                     "\"message\":\"Too many requests. Please try again later.\"," +
                     "\"retryAfterSeconds\":" + retryAfter + "}"
                 );
-                return;
+                return false;
             }
         }
 
-        filterChain.doFilter(request, response);
+        return true;
     }
 
     /**
@@ -1,9 +1,11 @@
 package com.example.lab10.security;
 
+import com.example.lab10.service.LogThrottle;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -22,6 +24,10 @@ public class RateLimiter {
     private static final long WINDOW_SIZE_MS = 60_000;     // 1 minute window
     private static final long BLOCK_DURATION_MS = 60_000; // 1 minute block
 
+    // A blocked client (or an attack from many IPs) would otherwise log once per request
+    private static final LogThrottle blockedLog = new LogThrottle("rate_limiter.blocked", 10, Duration.ofSeconds(10));
+    private static final LogThrottle failedLoginLog = new LogThrottle("rate_limiter.failed_login", 10, Duration.ofSeconds(10));
+
     // Storage for request counts and block times
     private final Map<String, RequestInfo> requestCounts = new ConcurrentHashMap<>();
     private final Map<String, Long> blockedIps = new ConcurrentHashMap<>();
@@ -35,7 +41,11 @@ public class RateLimiter {
         Long blockedUntil = blockedIps.get(ipAddress);
         if (blockedUntil != null) {
             if (System.currentTimeMillis() < blockedUntil) {
-                logger.warn("Rate limit: IP {} is blocked until {}", ipAddress, blockedUntil);
+                long suppressed = blockedLog.tryAcquire();
+                if (suppressed >= 0) {
+                    logger.warn("Rate limit: IP {} is blocked until {} ({} similar suppressed)",
+                            ipAddress, blockedUntil, suppressed);
+                }
                 return false;
             } else {
                 // Block expired, remove it
@@ -79,7 +89,10 @@ public class RateLimiter {
             // Count failed logins as 3 requests (more aggressive limiting)
             info.count.addAndGet(2);
         }
-        logger.warn("Failed login attempt recorded for IP: {}", ipAddress);
+        long suppressed = failedLoginLog.tryAcquire();
+        if (suppressed >= 0) {
+            logger.warn("Failed login attempt recorded for IP: {} ({} similar suppressed)", ipAddress, suppressed);
+        }
     }
 
     /**
@@ -0,0 +1,89 @@
+package com.example.lab10.security;
+
+import com.example.lab10.service.LatencyMetrics;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Single servlet filter for request pre-processing, ahead of the Spring Security chain.
+ *
+ * The route is decided once and handed to every {@link RequestStage} (HSTS, security
+ * headers, rate limiting); the stage filters themselves are not registered with the
+ * servlet container (see WebConfig), so each concern runs once per request.
+ * Every request's latency is recorded here, by handler pattern (or route) and status.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class RequestPipelineFilter extends OncePerRequestFilter {
+
+    private static final Set<String> KNOWN_METHODS =
+            Set.of("GET", "HEAD", "POST", "PUT", "PATCH", "DELETE", "OPTIONS");
+
+    private final List<RequestStage> stages;
+    private final LatencyMetrics metrics;
+
+    public RequestPipelineFilter(List<RequestStage> stages, LatencyMetrics metrics) {
+        this.stages = List.copyOf(stages);
+        this.metrics = metrics;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain)
+            throws ServletException, IOException {
+
+        long start = System.nanoTime();
+        RequestRoute route = RequestRoute.of(request.getRequestURI());
+        request.setAttribute(RequestRoute.ATTRIBUTE, route);
+
+        boolean failed = true;
+        try {
+            for (RequestStage stage : stages) {
+                if (!stage.apply(request, response, route)) {
+                    failed = false;
+                    return;
+                }
+            }
+
+            filterChain.doFilter(request, response);
+            failed = false;
+        } finally {
+            // Streams (SSE, async bodies) stay open for minutes: not request latency
+            if (!request.isAsyncStarted()) {
+                metrics.recordRequest(methodLabel(request), routeLabel(request, route),
+                        failed ? HttpServletResponse.SC_INTERNAL_SERVER_ERROR : response.getStatus(),
+                        System.nanoTime() - start);
+            }
+        }
+    }
+
+    /**
+     * The method comes straight from the request line, so anything outside the standard set
+     * (PROPFIND, random tokens) is one OTHER series instead of a new one per value.
+     */
+    private static String methodLabel(HttpServletRequest request) {
+        String method = request.getMethod();
+        return KNOWN_METHODS.contains(method) ? method : "OTHER";
+    }
+
+    /**
+     * The matched handler pattern keeps the label set bounded (/notes/{id}, not /notes/42);
+     * requests that never reached a handler (401, 429, 404) fall back to the route class.
+     */
+    private static String routeLabel(HttpServletRequest request, RequestRoute route) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.toString() : route.name();
+    }
+}
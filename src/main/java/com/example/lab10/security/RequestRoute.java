@@ -0,0 +1,39 @@
+package com.example.lab10.security;
+
+import java.util.regex.Pattern;
+
+/**
+ * Route class of a request, decided once per request by {@link RequestPipelineFilter}
+ * and shared by all pipeline stages (and available later as a request attribute).
+ */
+public enum RequestRoute {
+
+    AUTH,
+    API,
+    NOTES,
+    // Content-hashed static URL (favicon-<md5>.svg), never changes
+    VERSIONED_ASSET,
+    STATIC_ASSET,
+    OTHER;
+
+    public static final String ATTRIBUTE = RequestRoute.class.getName();
+
+    private static final Pattern STATIC = Pattern.compile("/|/[^/]+\\.(html|svg|ico|css|js)");
+    private static final Pattern VERSIONED = Pattern.compile("/[^/]+-[0-9a-f]{32}\\.(svg|ico|css|js)");
+
+    public static RequestRoute of(String uri) {
+        if (uri.startsWith("/auth/")) {
+            return AUTH;
+        }
+        if (uri.startsWith("/api/")) {
+            return API;
+        }
+        if (uri.startsWith("/notes")) {
+            return NOTES;
+        }
+        if (STATIC.matcher(uri).matches()) {
+            return VERSIONED.matcher(uri).matches() ? VERSIONED_ASSET : STATIC_ASSET;
+        }
+        return OTHER;
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.lab10.security;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+
+/**
+ * One step of the pre-processing pipeline ({@link RequestPipelineFilter}).
+ * Stages run in {@code @Order} order, each exactly once per request.
+ */
+public interface RequestStage {
+
+    /**
+     * @return false if the stage has written the response and the request must stop here
+     */
+    boolean apply(HttpServletRequest request, HttpServletResponse response, RequestRoute route) throws IOException;
+
+    /**
+     * Route from the pipeline, or computed here when the stage runs on its own.
+     */
+    static RequestRoute routeOf(HttpServletRequest request) {
+        Object route = request.getAttribute(RequestRoute.ATTRIBUTE);
+        return route instanceof RequestRoute r ? r : RequestRoute.of(request.getRequestURI());
+    }
+}
@@ -1,66 +1,67 @@
 package com.example.lab10.security;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import com.example.lab10.service.SecurityEventAggregator;
 import org.springframework.context.event.EventListener;
 import org.springframework.security.authentication.event.AbstractAuthenticationFailureEvent;
 import org.springframework.security.authentication.event.AuthenticationSuccessEvent;
 import org.springframework.security.authorization.event.AuthorizationDeniedEvent;
 import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
 
 /**
  * Listener for security events (login success/failure, authorization denied).
- * Logs security-relevant events without exposing sensitive data.
+ * Events are counted by {@link SecurityEventAggregator} (per-minute rollups, one summary
+ * line per window) rather than logged one by one; no passwords or tokens are recorded.
  */
 @Component
 public class SecurityEventListener {
 
-    private static final Logger logger = LoggerFactory.getLogger(SecurityEventListener.class);
+    private final SecurityEventAggregator aggregator;
+
+    public SecurityEventListener(SecurityEventAggregator aggregator) {
+        this.aggregator = aggregator;
+    }
 
     /**
-     * Logs failed authentication attempts.
+     * Counts failed authentication attempts.
      * IMPORTANT: Never log passwords or tokens!
      */
     @EventListener
     public void onAuthenticationFailure(AbstractAuthenticationFailureEvent event) {
-        String username = event.getAuthentication().getName();
-        String failureType = event.getException().getClass().getSimpleName();
-        
-        // Log without sensitive data - no password, no token
-        logger.warn("SECURITY: Failed login attempt - username: {}, reason: {}", 
-                maskUsername(username), failureType);
+        aggregator.record(SecurityEventAggregator.Type.LOGIN_FAILURE,
+                event.getAuthentication().getName(), currentClientIp());
     }
 
     /**
-     * Logs successful authentication.
+     * Counts successful authentication.
      */
     @EventListener
     public void onAuthenticationSuccess(AuthenticationSuccessEvent event) {
-        String username = event.getAuthentication().getName();
-        
-        logger.info("SECURITY: Successful login - username: {}", maskUsername(username));
+        aggregator.record(SecurityEventAggregator.Type.LOGIN_SUCCESS,
+                event.getAuthentication().getName(), currentClientIp());
     }
 
     /**
-     * Logs authorization denied events (403 Forbidden).
+     * Counts authorization denied events (403 Forbidden).
      */
     @EventListener
     public void onAuthorizationDenied(AuthorizationDeniedEvent event) {
         Object principal = event.getAuthentication().get().getPrincipal();
         String username = principal != null ? principal.toString() : "anonymous";
-        
-        logger.warn("SECURITY: Unauthorized access attempt - user: {}", 
-                maskUsername(username));
+
+        aggregator.record(SecurityEventAggregator.Type.AUTHORIZATION_DENIED, username, currentClientIp());
     }
 
     /**
-     * Masks username for privacy in logs.
-     * Shows first 2 characters, masks the rest.
+     * Remote address of the request being handled (events are published on the request thread).
+     * X-Forwarded-For / X-Real-IP are not used: any client can set them, and spoofed values
+     * would spread one attacker over many rollup keys.
      */
-    private String maskUsername(String username) {
-        if (username == null || username.length() <= 2) {
-            return "***";
+    private static String currentClientIp() {
+        if (!(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes)) {
+            return null;
         }
-        return username.substring(0, 2) + "***";
+        return attributes.getRequest().getRemoteAddr();
     }
 }
@@ -4,60 +4,95 @@ import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Filter to add security headers to all responses.
  * These headers instruct browsers to enforce extra security rules.
+ * Header sets are precomputed per {@link RequestRoute} (runs as a stage of {@link RequestPipelineFilter}).
  */
 @Component
-public class SecurityHeadersFilter extends OncePerRequestFilter {
+@Order(20)
+public class SecurityHeadersFilter extends OncePerRequestFilter implements RequestStage {
 
-    @Override
-    protected void doFilterInternal(HttpServletRequest request,
-                                    HttpServletResponse response,
-                                    FilterChain filterChain)
-            throws ServletException, IOException {
+    private static final Map<RequestRoute, String[][]> HEADERS = new EnumMap<>(RequestRoute.class);
 
-        // X-Content-Type-Options: Prevents MIME type sniffing
-        // Protects against script injection attacks
-        response.setHeader("X-Content-Type-Options", "nosniff");
+    static {
+        List<String[]> common = List.of(
+                // X-Content-Type-Options: Prevents MIME type sniffing
+                // Protects against script injection attacks
+                new String[] {"X-Content-Type-Options", "nosniff"},
 
-        // X-Frame-Options: Prevents clickjacking attacks
-        // DENY = page cannot be displayed in a frame
-        response.setHeader("X-Frame-Options", "DENY");
+                // X-Frame-Options: Prevents clickjacking attacks
+                // DENY = page cannot be displayed in a frame
+                new String[] {"X-Frame-Options", "DENY"},
 
-        // Content-Security-Policy: Controls resource loading
-        // This is a basic policy - adjust based on your app needs
-        response.setHeader("Content-Security-Policy", 
-                "default-src 'self'; " +
-                "script-src 'self' 'unsafe-inline'; " +
-                "style-src 'self' 'unsafe-inline'; " +
-                "img-src 'self' data:; " +
-                "font-src 'self'; " +
-                "frame-ancestors 'none'; " +
-                "form-action 'self'");
+                // Content-Security-Policy: Controls resource loading
+                // This is a basic policy - adjust based on your app needs
+                new String[] {"Content-Security-Policy",
+                        "default-src 'self'; " +
+                        "script-src 'self' 'unsafe-inline'; " +
+                        "style-src 'self' 'unsafe-inline'; " +
+                        "img-src 'self' data:; " +
+                        "font-src 'self'; " +
+                        "frame-ancestors 'none'; " +
+                        "form-action 'self'"},
 
-        // Referrer-Policy: Controls how much referrer info is sent
-        response.setHeader("Referrer-Policy", "strict-origin-when-cross-origin");
+                // Referrer-Policy: Controls how much referrer info is sent
+                new String[] {"Referrer-Policy", "strict-origin-when-cross-origin"},
 
-        // X-XSS-Protection: Legacy XSS protection (for older browsers)
-        response.setHeader("X-XSS-Protection", "1; mode=block");
+                // X-XSS-Protection: Legacy XSS protection (for older browsers)
+                new String[] {"X-XSS-Protection", "1; mode=block"},
 
-        // Permissions-Policy: Restricts browser features
-        response.setHeader("Permissions-Policy", 
-                "geolocation=(), microphone=(), camera=()");
+                // Permissions-Policy: Restricts browser features
+                new String[] {"Permissions-Policy", "geolocation=(), microphone=(), camera=()"});
 
         // Cache-Control: Prevent caching of sensitive data
-        if (request.getRequestURI().startsWith("/auth/") || 
-            request.getRequestURI().startsWith("/api/")) {
-            response.setHeader("Cache-Control", "no-store, no-cache, must-revalidate, max-age=0");
-            response.setHeader("Pragma", "no-cache");
+        String[][] noStore = {
+                {"Cache-Control", "no-store, no-cache, must-revalidate, max-age=0"},
+                {"Pragma", "no-cache"}};
+
+        for (RequestRoute route : RequestRoute.values()) {
+            List<String[]> headers = new ArrayList<>(common);
+            switch (route) {
+                case AUTH, API -> headers.addAll(List.of(noStore));
+                // Notes are per-user: private caches only, always revalidated via ETag / If-None-Match
+                case NOTES -> {
+                    headers.add(new String[] {"Cache-Control", "private, no-cache"});
+                    headers.add(new String[] {"Vary", "Authorization"});
+                }
+                // Content-hashed URLs (favicon-<md5>.svg) never change; plain names are revalidated via ETag
+                case VERSIONED_ASSET -> headers.add(new String[] {"Cache-Control", "public, max-age=31536000, immutable"});
+                case STATIC_ASSET -> headers.add(new String[] {"Cache-Control", "public, no-cache"});
+                case OTHER -> { }
+            }
+            HEADERS.put(route, headers.toArray(new String[0][]));
         }
+    }
 
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain)
+            throws ServletException, IOException {
+
+        apply(request, response, RequestStage.routeOf(request));
         filterChain.doFilter(request, response);
     }
+
+    @Override
+    public boolean apply(HttpServletRequest request, HttpServletResponse response, RequestRoute route) {
+        for (String[] header : HEADERS.get(route)) {
+            response.setHeader(header[0], header[1]);
+        }
+        return true;
+    }
 }
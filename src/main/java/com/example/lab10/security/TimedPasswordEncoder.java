@@ -0,0 +1,60 @@
+package com.example.lab10.security;
+
+import com.example.lab10.service.JfrEvents;
+import com.example.lab10.service.LatencyMetrics;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * Records BCrypt cost into {@link LatencyMetrics}: {@code matches} (login) as the password
+ * check, {@code encode} (register) as the password hash. Both also emit a
+ * {@link JfrEvents.PasswordHash} event while a recording is running.
+ */
+public class TimedPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+    private final LatencyMetrics metrics;
+
+    public TimedPasswordEncoder(PasswordEncoder delegate, LatencyMetrics metrics) {
+        this.delegate = delegate;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        JfrEvents.PasswordHash event = new JfrEvents.PasswordHash();
+        event.begin();
+        long start = System.nanoTime();
+        event.operation = "hash";
+        event.outcome = "error";
+        try {
+            String encoded = delegate.encode(rawPassword);
+            event.outcome = "hashed";
+            return encoded;
+        } finally {
+            metrics.recordStage(LatencyMetrics.Stage.PASSWORD_HASH, System.nanoTime() - start);
+            event.commit();
+        }
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        JfrEvents.PasswordHash event = new JfrEvents.PasswordHash();
+        event.begin();
+        long start = System.nanoTime();
+        event.operation = "check";
+        event.outcome = "error";
+        try {
+            boolean matches = delegate.matches(rawPassword, encodedPassword);
+            event.outcome = matches ? "match" : "mismatch";
+            return matches;
+        } finally {
+            metrics.recordStage(LatencyMetrics.Stage.PASSWORD_CHECK, System.nanoTime() - start);
+            event.commit();
+        }
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+}
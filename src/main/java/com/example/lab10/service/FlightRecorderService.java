@@ -0,0 +1,190 @@
+package com.example.lab10.service;
+
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * On-demand JDK Flight Recorder recordings for the admin API (POST /admin/jfr/start, stop,
+ * GET /admin/jfr/dump), so the live hot paths can be profiled without a restart.
+ *
+ * One recording at a time, always bounded: events older than max-age and data beyond
+ * max-size are discarded (ring buffer), and it stops by itself after the duration.
+ * The {@link JfrEvents} are enabled in every recording, on top of the JDK's
+ * "default" (~1% overhead) or "profile" (more detail, ~2%) settings.
+ */
+@Service
+public class FlightRecorderService {
+
+    private static final Logger logger = LoggerFactory.getLogger(FlightRecorderService.class);
+
+    private static final Set<String> SETTINGS = Set.of("default", "profile");
+    private static final List<Class<? extends jdk.jfr.Event>> APP_EVENTS = List.of(
+            JfrEvents.JwtVerify.class, JfrEvents.BlacklistCheck.class, JfrEvents.RateLimitDecision.class,
+            JfrEvents.PasswordHash.class, JfrEvents.RepositoryQuery.class);
+    // Would write secrets (JWT key, DB password, keystore password) into a downloadable file;
+    // JVMInformation carries the command line, where they can be passed as -D or program arguments
+    private static final List<String> SENSITIVE_EVENTS = List.of(
+            "jdk.InitialEnvironmentVariable", "jdk.InitialSystemProperty", "jdk.JVMInformation");
+
+    @Value("${app.jfr.max-duration-seconds:1800}")
+    private long maxDurationSeconds;
+
+    @Value("${app.jfr.max-age-seconds:600}")
+    private long maxAgeSeconds;
+
+    @Value("${app.jfr.max-size-mb:64}")
+    private long maxSizeMb;
+
+    // Guarded by lock
+    private final ReentrantLock lock = new ReentrantLock();
+    private Recording recording;
+
+    /**
+     * Starts a recording; requested limits are capped at the configured maximums.
+     * Returns null if one is already running.
+     */
+    public Map<String, Object> start(String settings, Long durationSeconds, Long maxAge, Long maxSize)
+            throws IOException {
+        if (!SETTINGS.contains(settings)) {
+            throw new IllegalArgumentException("settings must be one of " + SETTINGS);
+        }
+        lock.lock();
+        try {
+            if (recording != null && recording.getState() == RecordingState.RUNNING) {
+                return null;
+            }
+            closeRecording();
+
+            Recording r = new Recording(configuration(settings));
+            r.setName("lab10-admin");
+            r.setToDisk(true);
+            r.setDuration(Duration.ofSeconds(cap(durationSeconds, maxDurationSeconds)));
+            r.setMaxAge(Duration.ofSeconds(cap(maxAge, maxAgeSeconds)));
+            r.setMaxSize(cap(maxSize, maxSizeMb) * 1024 * 1024);
+            APP_EVENTS.forEach(type -> r.enable(type).withoutThreshold());
+            SENSITIVE_EVENTS.forEach(r::disable);
+            r.start();
+            recording = r;
+            logger.info("JFR recording started ({} settings, duration {}, max age {}, max size {} bytes)",
+                    settings, r.getDuration(), r.getMaxAge(), r.getMaxSize());
+            return describe(r);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Stops the running recording; its data stays available to {@link #dump()} until the
+     * next start. Returns null if there is no recording.
+     */
+    public Map<String, Object> stop() {
+        lock.lock();
+        try {
+            if (recording == null) {
+                return null;
+            }
+            if (recording.getState() == RecordingState.RUNNING) {
+                recording.stop();
+                logger.info("JFR recording stopped");
+            }
+            return describe(recording);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Writes the recording (a snapshot if still running) to a temporary .jfr file, which the
+     * caller deletes. Returns null if there is nothing to dump.
+     */
+    public Path dump() throws IOException {
+        lock.lock();
+        try {
+            if (recording == null || recording.getState() == RecordingState.NEW
+                    || recording.getState() == RecordingState.CLOSED) {
+                return null;
+            }
+            Path file = Files.createTempFile("lab10-", ".jfr");
+            recording.dump(file);
+            return file;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Map<String, Object> status() {
+        lock.lock();
+        try {
+            if (recording == null) {
+                Map<String, Object> res = new LinkedHashMap<>();
+                res.put("state", "NONE");
+                res.put("maxDurationSeconds", maxDurationSeconds);
+                res.put("maxAgeSeconds", maxAgeSeconds);
+                res.put("maxSizeMb", maxSizeMb);
+                return res;
+            }
+            return describe(recording);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        lock.lock();
+        try {
+            closeRecording();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void closeRecording() {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+        }
+    }
+
+    private static Configuration configuration(String name) throws IOException {
+        try {
+            return Configuration.getConfiguration(name);
+        } catch (ParseException e) {
+            // Built-in JDK settings files: not expected
+            throw new IllegalStateException("Unreadable JFR settings: " + name, e);
+        }
+    }
+
+    private static long cap(Long requested, long max) {
+        return requested == null || requested <= 0 ? max : Math.min(requested, max);
+    }
+
+    private static Map<String, Object> describe(Recording r) {
+        Map<String, Object> res = new LinkedHashMap<>();
+        res.put("state", r.getState().name());
+        res.put("startTime", r.getStartTime());
+        res.put("stopTime", r.getStopTime());
+        res.put("durationSeconds", r.getDuration() != null ? r.getDuration().toSeconds() : null);
+        res.put("maxAgeSeconds", r.getMaxAge() != null ? r.getMaxAge().toSeconds() : null);
+        res.put("maxSizeBytes", r.getMaxSize());
+        res.put("sizeBytes", r.getSize());
+        return res;
+    }
+}
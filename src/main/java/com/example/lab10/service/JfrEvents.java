@@ -0,0 +1,87 @@
+package com.example.lab10.service;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Custom JDK Flight Recorder events for the request hot paths, recorded with duration and
+ * outcome. They cost close to nothing unless a recording is running (begin/commit are
+ * no-ops and the event object is scalar-replaced); start one with POST /admin/jfr/start.
+ *
+ * Usage: {@code event.begin(); ...; event.outcome = "..."; event.commit();}
+ */
+public final class JfrEvents {
+
+    private static final String CATEGORY = "Lab10";
+
+    private JfrEvents() {
+    }
+
+    @Name("lab10.JwtVerify")
+    @Label("JWT Verify")
+    @Description("Signature check and claims parsing of a bearer token")
+    @Category({CATEGORY, "Auth"})
+    @StackTrace(false)
+    public static final class JwtVerify extends Event {
+        @Label("Outcome")
+        @Description("valid, expired or invalid")
+        public String outcome;
+    }
+
+    @Name("lab10.BlacklistCheck")
+    @Label("Blacklist Check")
+    @Description("Lookup of a bearer token in the logout blacklist")
+    @Category({CATEGORY, "Auth"})
+    @StackTrace(false)
+    public static final class BlacklistCheck extends Event {
+        @Label("Outcome")
+        @Description("blacklisted or clean")
+        public String outcome;
+    }
+
+    @Name("lab10.RateLimitDecision")
+    @Label("Rate Limit Decision")
+    @Description("Per-IP rate limit check on an auth endpoint")
+    @Category({CATEGORY, "Auth"})
+    @StackTrace(false)
+    public static final class RateLimitDecision extends Event {
+        @Label("Outcome")
+        @Description("allowed or rejected")
+        public String outcome;
+    }
+
+    @Name("lab10.PasswordHash")
+    @Label("Password Hash")
+    @Description("BCrypt hash (register) or check (login)")
+    @Category({CATEGORY, "Auth"})
+    @StackTrace(false)
+    public static final class PasswordHash extends Event {
+        @Label("Operation")
+        @Description("hash or check")
+        public String operation;
+
+        @Label("Outcome")
+        @Description("hashed, match, mismatch or error")
+        public String outcome;
+    }
+
+    @Name("lab10.RepositoryQuery")
+    @Label("Repository Query")
+    @Description("One call on a repository bean, including its transaction")
+    @Category({CATEGORY, "Database"})
+    public static final class RepositoryQuery extends Event {
+        @Label("Repository")
+        public String repository;
+
+        @Label("Method")
+        public String method;
+
+        @Label("Outcome")
+        @Description("ok or the exception class")
+        public String outcome;
+    }
+}
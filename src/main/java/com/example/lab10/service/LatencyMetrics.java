@@ -0,0 +1,159 @@
+package com.example.lab10.service;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Latency histograms (HdrHistogram, 3 significant digits, nanosecond values) for requests
+ * by route and status, for the internal stages of auth (rate limiting, blacklist, JWT,
+ * BCrypt), and for every repository method. Exposed as Prometheus text at GET /admin/metrics.
+ *
+ * Recording is a lock-free write into a {@link Recorder}; a scrape swaps out the interval
+ * histogram and folds it into the cumulative one, so readers never block writers.
+ */
+@Component
+public class LatencyMetrics {
+
+    /**
+     * Internal stages timed on the request path.
+     */
+    public enum Stage {
+        RATE_LIMIT,
+        BLACKLIST,
+        JWT_VERIFY,
+        PASSWORD_CHECK,
+        PASSWORD_HASH;
+
+        final String label = name().toLowerCase();
+    }
+
+    static final String REQUESTS = "lab10_http_server_requests_seconds";
+    static final String STAGES = "lab10_stage_seconds";
+    static final String REPOSITORIES = "lab10_repository_seconds";
+
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+
+    private final Map<RequestKey, LatencyHistogram> requests = new ConcurrentHashMap<>();
+    private final Map<RepositoryKey, LatencyHistogram> repositories = new ConcurrentHashMap<>();
+    // Fixed set, created up front: recording a stage allocates nothing
+    private final Map<Stage, LatencyHistogram> stages = new EnumMap<>(Stage.class);
+
+    public LatencyMetrics() {
+        for (Stage stage : Stage.values()) {
+            stages.put(stage, new LatencyHistogram());
+        }
+    }
+
+    /**
+     * @param route handler pattern (/notes/{id}) or, when no handler matched, the route class
+     */
+    public void recordRequest(String method, String route, int status, long nanos) {
+        requests.computeIfAbsent(new RequestKey(method, route, status), k -> new LatencyHistogram()).record(nanos);
+    }
+
+    public void recordStage(Stage stage, long nanos) {
+        stages.get(stage).record(nanos);
+    }
+
+    public void recordRepository(String repository, String method, long nanos) {
+        repositories.computeIfAbsent(new RepositoryKey(repository, method), k -> new LatencyHistogram()).record(nanos);
+    }
+
+    /**
+     * Prometheus text exposition format (0.0.4): one summary per family, plus a _max gauge.
+     */
+    public String prometheus() {
+        StringBuilder out = new StringBuilder(4096);
+
+        family(out, REQUESTS, "HTTP request latency by method, route and status");
+        requests.entrySet().stream()
+                .sorted(Comparator.comparing((Map.Entry<RequestKey, LatencyHistogram> e) -> e.getKey().route())
+                        .thenComparing(e -> e.getKey().method())
+                        .thenComparingInt(e -> e.getKey().status()))
+                .forEach(e -> summary(out, REQUESTS, "method=\"" + escape(e.getKey().method())
+                        + "\",route=\"" + escape(e.getKey().route())
+                        + "\",status=\"" + e.getKey().status() + "\"", e.getValue().snapshot()));
+
+        family(out, STAGES, "Latency of internal request stages");
+        stages.forEach((stage, histogram) ->
+                summary(out, STAGES, "stage=\"" + stage.label + "\"", histogram.snapshot()));
+
+        family(out, REPOSITORIES, "Latency of repository calls by repository and method");
+        repositories.entrySet().stream()
+                .sorted(Comparator.comparing((Map.Entry<RepositoryKey, LatencyHistogram> e) -> e.getKey().repository())
+                        .thenComparing(e -> e.getKey().method()))
+                .forEach(e -> summary(out, REPOSITORIES, "repository=\"" + escape(e.getKey().repository())
+                        + "\",method=\"" + escape(e.getKey().method()) + "\"", e.getValue().snapshot()));
+
+        return out.toString();
+    }
+
+    private static void family(StringBuilder out, String name, String help) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(" summary\n");
+    }
+
+    private static void summary(StringBuilder out, String name, String labels, Snapshot snapshot) {
+        for (double q : QUANTILES) {
+            out.append(name).append('{').append(labels).append(",quantile=\"").append(q).append("\"} ")
+                    .append(seconds(snapshot.histogram().getValueAtPercentile(q * 100))).append('\n');
+        }
+        out.append(name).append("_sum{").append(labels).append("} ").append(seconds(snapshot.sumNanos())).append('\n');
+        out.append(name).append("_count{").append(labels).append("} ").append(snapshot.histogram().getTotalCount()).append('\n');
+        out.append(name).append("_max{").append(labels).append("} ").append(seconds(snapshot.histogram().getMaxValue())).append('\n');
+    }
+
+    private static String seconds(long nanos) {
+        return Double.toString(nanos / 1e9);
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    private record RequestKey(String method, String route, int status) {}
+
+    private record RepositoryKey(String repository, String method) {}
+
+    private record Snapshot(Histogram histogram, long sumNanos) {}
+
+    private static final class LatencyHistogram {
+
+        private static final int SIGNIFICANT_DIGITS = 3;
+
+        // Auto-resizing: no upper bound to configure
+        private final Recorder recorder = new Recorder(SIGNIFICANT_DIGITS);
+        // HdrHistogram buckets values, so the exact total for _sum is kept separately
+        private final LongAdder sumNanos = new LongAdder();
+
+        // Guarded by lock (scrapes only)
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Histogram cumulative = new Histogram(SIGNIFICANT_DIGITS);
+        private Histogram interval;
+
+        void record(long nanos) {
+            long value = Math.max(nanos, 0);
+            recorder.recordValue(value);
+            sumNanos.add(value);
+        }
+
+        Snapshot snapshot() {
+            lock.lock();
+            try {
+                interval = recorder.getIntervalHistogram(interval);
+                cumulative.add(interval);
+                return new Snapshot(cumulative.copy(), sumNanos.sum());
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
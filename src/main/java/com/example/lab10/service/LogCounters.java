@@ -0,0 +1,57 @@
+package com.example.lab10.service;
+
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts log events that were never written: dropped by an asynchronous appender
+ * (CountingAsyncAppender, prod profile) and suppressed by a {@link LogThrottle}.
+ *
+ * Static because appenders are created by Logback before (and outside) the Spring context.
+ */
+public final class LogCounters {
+
+    private static final Map<Dropped, LongAdder> DROPPED = new ConcurrentHashMap<>();
+    private static final Map<String, LongAdder> SUPPRESSED = new ConcurrentHashMap<>();
+
+    private LogCounters() {
+    }
+
+    /**
+     * @param reason "discarded" (below the drop level, queue nearly full) or "queue_full"
+     */
+    public static LongAdder dropped(String appender, String reason) {
+        return DROPPED.computeIfAbsent(new Dropped(appender, reason), k -> new LongAdder());
+    }
+
+    public static LongAdder suppressed(String site) {
+        return SUPPRESSED.computeIfAbsent(site, k -> new LongAdder());
+    }
+
+    /**
+     * Prometheus text exposition of both counters (appended to GET /admin/metrics).
+     */
+    public static String prometheus() {
+        StringBuilder out = new StringBuilder(512);
+        out.append("# HELP lab10_log_events_dropped_total Log events dropped by asynchronous appenders\n");
+        out.append("# TYPE lab10_log_events_dropped_total counter\n");
+        DROPPED.entrySet().stream()
+                .sorted(Comparator.comparing((Map.Entry<Dropped, LongAdder> e) -> e.getKey().appender())
+                        .thenComparing(e -> e.getKey().reason()))
+                .forEach(e -> out.append("lab10_log_events_dropped_total{appender=\"").append(e.getKey().appender())
+                        .append("\",reason=\"").append(e.getKey().reason()).append("\"} ")
+                        .append(e.getValue().sum()).append('\n'));
+
+        out.append("# HELP lab10_log_events_suppressed_total Repeated warnings suppressed by log rate limiting\n");
+        out.append("# TYPE lab10_log_events_suppressed_total counter\n");
+        SUPPRESSED.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .forEach(e -> out.append("lab10_log_events_suppressed_total{site=\"").append(e.getKey())
+                        .append("\"} ").append(e.getValue().sum()).append('\n'));
+        return out.toString();
+    }
+
+    private record Dropped(String appender, String reason) {}
+}
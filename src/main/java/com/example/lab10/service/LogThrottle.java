@@ -0,0 +1,55 @@
+package com.example.lab10.service;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Rate limit for one repetitive log statement (e.g. a WARN per rejected request):
+ * at most {@code maxPerWindow} events are logged per window, the rest are counted.
+ * The next logged event reports how many were suppressed before it.
+ *
+ * <pre>
+ * long suppressed = throttle.tryAcquire();
+ * if (suppressed >= 0) logger.warn("... ({} similar suppressed)", ..., suppressed);
+ * </pre>
+ */
+public class LogThrottle {
+
+    private final int maxPerWindow;
+    private final long windowMillis;
+    private final LongAdder suppressedTotal;
+
+    private final AtomicLong windowStart = new AtomicLong();
+    private final AtomicInteger used = new AtomicInteger();
+    private final AtomicLong pending = new AtomicLong();
+
+    /**
+     * @param site label of the suppressed counter in GET /admin/metrics
+     */
+    public LogThrottle(String site, int maxPerWindow, Duration window) {
+        this.maxPerWindow = maxPerWindow;
+        this.windowMillis = window.toMillis();
+        this.suppressedTotal = LogCounters.suppressed(site);
+    }
+
+    /**
+     * Returns -1 if this event should not be logged, otherwise the number of events
+     * suppressed since the last one that was. Approximate at window boundaries under
+     * contention, which is fine for logging.
+     */
+    public long tryAcquire() {
+        long now = System.currentTimeMillis();
+        long start = windowStart.get();
+        if (now - start >= windowMillis && windowStart.compareAndSet(start, now)) {
+            used.set(0);
+        }
+        if (used.incrementAndGet() <= maxPerWindow) {
+            return pending.getAndSet(0);
+        }
+        pending.incrementAndGet();
+        suppressedTotal.increment();
+        return -1;
+    }
+}
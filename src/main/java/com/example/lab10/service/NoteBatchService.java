@@ -0,0 +1,184 @@
+package com.example.lab10.service;
+
+import com.example.lab10.dto_.NoteBatchOperation;
+import com.example.lab10.dto_.NoteRequest;
+import com.example.lab10.repo.NoteRepository;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Applies many note operations in one request and one transaction.
+ * All operations are validated first, ownership is checked with a single
+ * set-based query, and updates/deletes go through JDBC batching.
+ */
+@Service
+public class NoteBatchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(NoteBatchService.class);
+
+    public static final String OP_CREATE = "create";
+    public static final String OP_UPDATE = "update";
+    public static final String OP_DELETE = "delete";
+
+    private final NoteRepository noteRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final Validator validator;
+
+    public NoteBatchService(NoteRepository noteRepository, JdbcTemplate jdbcTemplate, Validator validator) {
+        this.noteRepository = noteRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.validator = validator;
+    }
+
+    /**
+     * Validates every operation without touching the database.
+     * Returns one result per operation; any "invalid" status means nothing must be applied.
+     */
+    public List<ItemResult> validate(List<NoteBatchOperation> operations) {
+        List<ItemResult> results = new ArrayList<>(operations.size());
+        Set<Long> seenIds = new HashSet<>();
+
+        for (int i = 0; i < operations.size(); i++) {
+            NoteBatchOperation op = operations.get(i);
+            String error = validateOne(op, seenIds);
+            results.add(error == null
+                    ? new ItemResult(i, op.getOp(), "valid", op.getId(), null)
+                    : new ItemResult(i, op == null ? null : op.getOp(), "invalid", op == null ? null : op.getId(), error));
+        }
+        return results;
+    }
+
+    private String validateOne(NoteBatchOperation op, Set<Long> seenIds) {
+        if (op == null || op.getOp() == null) {
+            return "op is required";
+        }
+
+        switch (op.getOp()) {
+            case OP_CREATE -> {
+                if (op.getId() != null) return "id must not be set for create";
+            }
+            case OP_UPDATE, OP_DELETE -> {
+                if (op.getId() == null) return "id is required for " + op.getOp();
+                // Operations are grouped by type when applied, so one note may appear only once
+                if (!seenIds.add(op.getId())) return "duplicate id in batch";
+            }
+            default -> {
+                return "op must be create, update or delete";
+            }
+        }
+
+        if (!OP_DELETE.equals(op.getOp())) {
+            NoteRequest req = new NoteRequest();
+            req.setTitle(op.getTitle());
+            req.setContent(op.getContent());
+
+            Set<ConstraintViolation<NoteRequest>> violations = validator.validate(req);
+            if (!violations.isEmpty()) {
+                return violations.stream()
+                        .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                        .sorted()
+                        .collect(Collectors.joining("; "));
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Applies already-validated operations for the given owner in one transaction.
+     * Operations on notes the owner does not have are reported as not_found; the rest are applied.
+     */
+    @Transactional
+    public List<ItemResult> apply(Long userId, List<NoteBatchOperation> operations) {
+        ItemResult[] results = new ItemResult[operations.size()];
+
+        // One set-based ownership check for every referenced id
+        List<Long> referencedIds = operations.stream()
+                .map(NoteBatchOperation::getId)
+                .filter(id -> id != null)
+                .toList();
+        Set<Long> ownedIds = referencedIds.isEmpty()
+                ? Set.of()
+                : new HashSet<>(noteRepository.findIdsOwnedBy(userId, referencedIds));
+
+        List<Integer> updates = new ArrayList<>();
+        List<Integer> deletes = new ArrayList<>();
+
+        for (int i = 0; i < operations.size(); i++) {
+            NoteBatchOperation op = operations.get(i);
+            switch (op.getOp()) {
+                case OP_CREATE -> {
+                    Long id = jdbcTemplate.queryForObject(
+                            "INSERT INTO notes(user_id, title, content) VALUES (?, ?, ?) RETURNING id",
+                            Long.class, userId, op.getTitle(), op.getContent());
+                    results[i] = new ItemResult(i, OP_CREATE, "ok", id, null);
+                }
+                case OP_UPDATE, OP_DELETE -> {
+                    if (!ownedIds.contains(op.getId())) {
+                        results[i] = new ItemResult(i, op.getOp(), "not_found", op.getId(), "note_not_found");
+                    } else if (OP_UPDATE.equals(op.getOp())) {
+                        updates.add(i);
+                    } else {
+                        deletes.add(i);
+                    }
+                }
+                default -> throw new IllegalArgumentException("Unvalidated op: " + op.getOp());
+            }
+        }
+
+        if (!updates.isEmpty()) {
+            int[] counts = jdbcTemplate.batchUpdate(
+                    "UPDATE notes SET title = ?, content = ?, content_external = 0, version = version + 1 " +
+                    "WHERE id = ? AND user_id = ?",
+                    updates.stream()
+                            .map(operations::get)
+                            .map(op -> new Object[]{op.getTitle(), op.getContent(), op.getId(), userId})
+                            .toList());
+            fillBatchResults(results, operations, updates, counts);
+        }
+
+        if (!deletes.isEmpty()) {
+            int[] counts = jdbcTemplate.batchUpdate(
+                    "DELETE FROM notes WHERE id = ? AND user_id = ?",
+                    deletes.stream()
+                            .map(operations::get)
+                            .map(op -> new Object[]{op.getId(), userId})
+                            .toList());
+            fillBatchResults(results, operations, deletes, counts);
+        }
+
+        logger.debug("Note batch applied: {} operations", operations.size());
+        return Arrays.asList(results);
+    }
+
+    private void fillBatchResults(ItemResult[] results, List<NoteBatchOperation> operations,
+                                  List<Integer> indexes, int[] counts) {
+        for (int k = 0; k < indexes.size(); k++) {
+            int i = indexes.get(k);
+            NoteBatchOperation op = operations.get(i);
+            // Drivers may report SUCCESS_NO_INFO (-2) instead of a row count
+            boolean applied = counts[k] != 0;
+            results[i] = applied
+                    ? new ItemResult(i, op.getOp(), "ok", op.getId(), null)
+                    : new ItemResult(i, op.getOp(), "not_found", op.getId(), "note_not_found");
+        }
+    }
+
+    /**
+     * Per-operation outcome. status = ok | not_found | invalid (| valid during validation).
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record ItemResult(int index, String op, String status, Long id, String error) {}
+}
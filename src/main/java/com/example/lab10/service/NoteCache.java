@@ -0,0 +1,157 @@
+package com.example.lab10.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import tools.jackson.databind.ObjectMapper;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Bounded in-memory cache of serialized note responses (per-user lists and single notes).
+ *
+ * Entries hold pre-serialized JSON bytes (one per representation variant, e.g. sparse
+ * fieldset), so a hit skips both SQLite and Jackson.
+ * Every entry remembers the version it was built from (note version / collection version)
+ * and is only served while that version is current; write paths additionally evict
+ * the affected entries right away. Eviction is Caffeine's W-TinyLFU, bounded by bytes.
+ */
+@Component
+public class NoteCache {
+
+    // Rough per-entry overhead (key, entry, byte[] header) added to the payload size
+    private static final int ENTRY_OVERHEAD_BYTES = 96;
+
+    private final Cache<Key, Entry> cache;
+    private final ObjectMapper objectMapper;
+    private final long maxWeightBytes;
+
+    // Own hit/miss counters: an entry built from an older version is a miss, not a hit
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder staleMisses = new LongAdder();
+
+    public NoteCache(ObjectMapper objectMapper,
+                     @Value("${app.notes.cache.max-weight-bytes:33554432}") long maxWeightBytes) {
+        this.objectMapper = objectMapper;
+        this.maxWeightBytes = maxWeightBytes;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxWeightBytes)
+                .weigher((Key key, Entry entry) -> entry.weight())
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Returns the serialized note list of the user at the given collection version,
+     * building (and caching) it from {@code loader} on a miss.
+     * {@code variant} distinguishes representations of the same data (e.g. sparse fieldsets).
+     * The loader returns the response object, or its bytes when it serializes them itself.
+     */
+    public byte[] list(String username, String variant, long collectionVersion, Supplier<?> loader) {
+        return getOrLoad(new Key(username, null), variant, collectionVersion, loader);
+    }
+
+    /**
+     * Returns the serialized note at the given version, building it from {@code loader} on a miss.
+     * A loader returning null (note vanished) is not cached and yields null.
+     */
+    public byte[] note(String username, long noteId, String variant, long version, Supplier<?> loader) {
+        return getOrLoad(new Key(username, noteId), variant, version, loader);
+    }
+
+    private byte[] getOrLoad(Key key, String variant, long version, Supplier<?> loader) {
+        Entry cached = cache.getIfPresent(key);
+        if (cached != null && cached.version() == version) {
+            byte[] json = cached.variants().get(variant);
+            if (json != null) {
+                hits.increment();
+                return json;
+            }
+        }
+        misses.increment();
+        if (cached != null && cached.version() != version) {
+            staleMisses.increment();
+        }
+
+        Object value = loader.get();
+        if (value == null) {
+            return null;
+        }
+
+        // Loaders with a hand-written writer return the serialized bytes themselves
+        byte[] json = value instanceof byte[] bytes ? bytes : objectMapper.writeValueAsBytes(value);
+        // Variants of the same version share one entry; a different version replaces it
+        cache.asMap().compute(key, (k, existing) ->
+                existing != null && existing.version() == version
+                        ? existing.with(variant, json)
+                        : new Entry(version, Map.of(variant, json)));
+        return json;
+    }
+
+    /**
+     * Drops the cached list of the user (after create/update/delete of any of their notes).
+     */
+    public void evictList(String username) {
+        cache.invalidate(new Key(username, null));
+    }
+
+    /**
+     * Drops one cached note and the user's list.
+     */
+    public void evictNote(String username, long noteId) {
+        cache.invalidate(new Key(username, noteId));
+        evictList(username);
+    }
+
+    /**
+     * Hit ratio, evictions and memory weight for monitoring.
+     */
+    public Map<String, Object> stats() {
+        CacheStats stats = cache.stats();
+        long weightedSize = cache.policy().eviction()
+                .map(eviction -> eviction.weightedSize().orElse(0L))
+                .orElse(0L);
+
+        Map<String, Object> res = new LinkedHashMap<>();
+        res.put("entries", cache.estimatedSize());
+        res.put("weightBytes", weightedSize);
+        res.put("maxWeightBytes", maxWeightBytes);
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        res.put("hitCount", hitCount);
+        res.put("missCount", missCount);
+        res.put("staleMissCount", staleMisses.sum());
+        res.put("hitRate", hitCount + missCount == 0 ? 0.0 : (double) hitCount / (hitCount + missCount));
+        res.put("evictionCount", stats.evictionCount());
+        res.put("evictionWeightBytes", stats.evictionWeight());
+        return res;
+    }
+
+    // noteId == null -> the user's note list
+    private record Key(String username, Long noteId) {}
+
+    // All cached representations (variant -> JSON) of one version of the data
+    private record Entry(long version, Map<String, byte[]> variants) {
+
+        Entry with(String variant, byte[] json) {
+            Map<String, byte[]> copy = new HashMap<>(variants);
+            copy.put(variant, json);
+            return new Entry(version, Map.copyOf(copy));
+        }
+
+        int weight() {
+            int weight = ENTRY_OVERHEAD_BYTES;
+            for (byte[] json : variants.values()) {
+                weight += json.length;
+            }
+            return weight;
+        }
+    }
+}
@@ -0,0 +1,395 @@
+package com.example.lab10.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Stores note bodies either inline (notes.content) or out-of-row in fixed-size chunks
+ * (note_blobs / note_blob_chunks, see V9 migration).
+ *
+ * Large bodies are never held in memory as a whole: uploads are spooled to a temp file
+ * (so the SQLite write transaction stays short) and reads stream chunk by chunk,
+ * which also makes byte-range reads cheap.
+ *
+ * Chunks carry a codec marker, so compression can be switched on and off at any time:
+ * rows written while it was off stay readable and are recompressed in the background.
+ * Inline content is never compressed - the FTS5 index reads notes.content directly.
+ */
+@Service
+public class NoteContentStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(NoteContentStore.class);
+
+    public static final int CODEC_RAW = 0;
+    public static final int CODEC_DEFLATE = 1;
+    // Raw bytes that were already tried and don't compress - skipped by the recompression job
+    public static final int CODEC_STORED = 2;
+
+    private static final int RECOMPRESS_BATCH = 64;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.notes.content.inline-max-bytes:4096}")
+    private int inlineMaxBytes;
+
+    @Value("${app.notes.content.chunk-bytes:65536}")
+    private int chunkBytes;
+
+    @Value("${app.notes.content.max-bytes:16777216}")
+    private long maxBytes;
+
+    @Value("${app.notes.content.compress:true}")
+    private boolean compress;
+
+    @Value("${app.notes.content.compress-min-bytes:512}")
+    private int compressMinBytes;
+
+    @Value("${app.notes.content.recompress-max-chunks:4096}")
+    private int recompressMaxChunks;
+
+    @Value("${app.notes.content.externalize-inline:false}")
+    private boolean externalizeInline;
+
+    public NoteContentStore(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Replaces the body of a note the caller already owns.
+     * Bodies up to the inline threshold go to notes.content, larger ones to chunk rows.
+     *
+     * @return the stored body size in bytes
+     * @throws ContentTooLargeException if the body exceeds app.notes.content.max-bytes
+     */
+    public long write(long noteId, InputStream body) throws IOException {
+        // Read one byte past the inline threshold to find out which storage applies
+        byte[] head = body.readNBytes(inlineMaxBytes + 1);
+        if (head.length <= inlineMaxBytes) {
+            String text = new String(head, StandardCharsets.UTF_8);
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.update(
+                    "UPDATE notes SET content = ?, content_external = 0, version = version + 1 WHERE id = ?",
+                    text, noteId));
+            return head.length;
+        }
+
+        Path spool = Files.createTempFile("note-" + noteId + "-", ".body");
+        try {
+            long size;
+            try (OutputStream out = Files.newOutputStream(spool)) {
+                out.write(head);
+                size = head.length + copyBounded(body, out, maxBytes - head.length);
+            }
+
+            try (InputStream in = Files.newInputStream(spool)) {
+                transactionTemplate.executeWithoutResult(status -> writeChunks(noteId, in, size));
+            }
+            logger.debug("Stored out-of-row body for note {} ({} bytes)", noteId, size);
+            return size;
+        } finally {
+            Files.deleteIfExists(spool);
+        }
+    }
+
+    private void writeChunks(long noteId, InputStream in, long size) {
+        jdbcTemplate.update("DELETE FROM note_blob_chunks WHERE note_id = ?", noteId);
+
+        try {
+            int seq = 0;
+            byte[] chunk;
+            while ((chunk = in.readNBytes(chunkBytes)).length > 0) {
+                Packed packed = pack(chunk);
+                jdbcTemplate.update(
+                        "INSERT INTO note_blob_chunks(note_id, seq, codec, raw_size, data) VALUES (?, ?, ?, ?, ?)",
+                        noteId, seq++, packed.codec(), chunk.length, packed.data());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        jdbcTemplate.update(
+                "INSERT INTO note_blobs(note_id, size, chunk_size) VALUES (?, ?, ?) " +
+                "ON CONFLICT(note_id) DO UPDATE SET size = excluded.size, chunk_size = excluded.chunk_size",
+                noteId, size, chunkBytes);
+        int updated = jdbcTemplate.update(
+                "UPDATE notes SET content = NULL, content_external = 1, version = version + 1 WHERE id = ?",
+                noteId);
+        if (updated == 0) {
+            // Note deleted concurrently: roll back instead of leaving orphaned chunks
+            throw new IllegalStateException("Note " + noteId + " no longer exists");
+        }
+    }
+
+    private Packed pack(byte[] chunk) {
+        if (!compress) {
+            return new Packed(CODEC_RAW, chunk);
+        }
+        byte[] deflated = chunk.length >= compressMinBytes ? deflate(chunk) : null;
+        return deflated != null ? new Packed(CODEC_DEFLATE, deflated) : new Packed(CODEC_STORED, chunk);
+    }
+
+    private static long copyBounded(InputStream in, OutputStream out, long limit) throws IOException {
+        byte[] buffer = new byte[8192];
+        long copied = 0;
+        int n;
+        while ((n = in.read(buffer)) != -1) {
+            copied += n;
+            if (copied > limit) {
+                throw new ContentTooLargeException();
+            }
+            out.write(buffer, 0, n);
+        }
+        return copied;
+    }
+
+    /**
+     * Size of an out-of-row body, or empty if the note's body is inline.
+     */
+    public Optional<BlobInfo> info(long noteId) {
+        return jdbcTemplate.query(
+                "SELECT size, chunk_size FROM note_blobs WHERE note_id = ?",
+                (rs, rowNum) -> new BlobInfo(rs.getLong("size"), rs.getInt("chunk_size")),
+                noteId).stream().findFirst();
+    }
+
+    /**
+     * Streams bytes [start, endInclusive] of an out-of-row body to {@code out},
+     * reading only the chunks that overlap the range, one at a time.
+     */
+    public void stream(long noteId, BlobInfo info, long start, long endInclusive, OutputStream out) {
+        long firstSeq = start / info.chunkSize();
+        long lastSeq = endInclusive / info.chunkSize();
+
+        jdbcTemplate.query(
+                "SELECT seq, codec, raw_size, data FROM note_blob_chunks " +
+                "WHERE note_id = ? AND seq BETWEEN ? AND ? ORDER BY seq",
+                (RowCallbackHandler) rs -> {
+                    long chunkStart = rs.getLong("seq") * info.chunkSize();
+                    byte[] raw = decode(rs.getInt("codec"), rs.getBytes("data"), rs.getInt("raw_size"));
+
+                    int from = (int) Math.max(0, start - chunkStart);
+                    int to = (int) Math.min(raw.length, endInclusive + 1 - chunkStart);
+                    try {
+                        out.write(raw, from, to - from);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                },
+                noteId, firstSeq, lastSeq);
+    }
+
+    /**
+     * Background recompression: chunks written while compression was off (codec 0) are
+     * deflated in small transactions, so writers are never blocked for long.
+     * With app.notes.content.externalize-inline, legacy inline bodies above the inline
+     * threshold are also moved out-of-row (they then leave the full-text index).
+     */
+    @Scheduled(fixedDelayString = "${app.notes.content.recompress-interval-ms:600000}", initialDelay = 60000)
+    public void recompressInBackground() {
+        if (!compress) {
+            return;
+        }
+        Map<String, Long> res = recompress();
+        if (res.get("chunks") > 0 || res.get("externalized") > 0) {
+            logger.info("Note storage recompressed: {}", res);
+        }
+    }
+
+    /**
+     * One bounded recompression pass (also triggered from the admin API).
+     */
+    public Map<String, Long> recompress() {
+        long chunks = 0;
+        long savedBytes = 0;
+        while (compress && chunks < recompressMaxChunks) {
+            long[] batch = transactionTemplate.execute(status -> recompressBatch());
+            if (batch == null || batch[0] == 0) {
+                break;
+            }
+            chunks += batch[0];
+            savedBytes += batch[1];
+        }
+
+        long externalized = externalizeInline && compress ? externalizeLargeInline() : 0;
+
+        Map<String, Long> res = new LinkedHashMap<>();
+        res.put("chunks", chunks);
+        res.put("savedBytes", savedBytes);
+        res.put("externalized", externalized);
+        return res;
+    }
+
+    // Select + update in one transaction: a concurrent rewrite of the same note can't interleave
+    private long[] recompressBatch() {
+        List<RawChunk> batch = jdbcTemplate.query(
+                "SELECT note_id, seq, data FROM note_blob_chunks WHERE codec = ? LIMIT ?",
+                (rs, rowNum) -> new RawChunk(rs.getLong("note_id"), rs.getInt("seq"), rs.getBytes("data")),
+                CODEC_RAW, RECOMPRESS_BATCH);
+
+        long[] res = new long[2];
+        for (RawChunk chunk : batch) {
+            Packed packed = pack(chunk.data());
+            jdbcTemplate.update(
+                    "UPDATE note_blob_chunks SET codec = ?, data = ? WHERE note_id = ? AND seq = ?",
+                    packed.codec(), packed.data(), chunk.noteId(), chunk.seq());
+            res[0]++;
+            res[1] += chunk.data().length - packed.data().length;
+        }
+        return res;
+    }
+
+    private long externalizeLargeInline() {
+        List<Long> ids = jdbcTemplate.queryForList(
+                "SELECT id FROM notes WHERE content_external = 0 AND length(CAST(content AS BLOB)) > ? LIMIT ?",
+                Long.class, inlineMaxBytes, RECOMPRESS_BATCH);
+        long moved = 0;
+        for (Long id : ids) {
+            String content = jdbcTemplate.queryForObject("SELECT content FROM notes WHERE id = ?", String.class, id);
+            if (content == null) {
+                continue;
+            }
+            try {
+                write(id, new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)));
+                moved++;
+            } catch (IOException | RuntimeException e) {
+                logger.warn("Could not move body of note {} out-of-row: {}", id, e.getMessage());
+            }
+        }
+        return moved;
+    }
+
+    /**
+     * Database size and where note bytes live (inline vs. chunks, raw vs. stored size).
+     */
+    public Map<String, Object> storageReport() {
+        long pageSize = jdbcTemplate.queryForObject("PRAGMA page_size", Long.class);
+        long pageCount = jdbcTemplate.queryForObject("PRAGMA page_count", Long.class);
+        long freePages = jdbcTemplate.queryForObject("PRAGMA freelist_count", Long.class);
+
+        Map<String, Object> res = new LinkedHashMap<>();
+        res.put("databaseBytes", pageSize * pageCount);
+        res.put("freeBytes", pageSize * freePages);
+        res.put("inlineContentBytes", jdbcTemplate.queryForObject(
+                "SELECT COALESCE(SUM(length(CAST(content AS BLOB))), 0) FROM notes WHERE content_external = 0",
+                Long.class));
+        res.put("externalNotes", jdbcTemplate.queryForObject("SELECT COUNT(*) FROM note_blobs", Long.class));
+
+        long rawBytes = 0;
+        long storedBytes = 0;
+        Map<String, Long> chunksByCodec = new LinkedHashMap<>();
+        for (Map<String, Object> row : jdbcTemplate.queryForList(
+                "SELECT codec, COUNT(*) AS chunks, SUM(raw_size) AS raw, SUM(length(data)) AS stored " +
+                "FROM note_blob_chunks GROUP BY codec")) {
+            int codec = ((Number) row.get("codec")).intValue();
+            chunksByCodec.put(codecName(codec), ((Number) row.get("chunks")).longValue());
+            rawBytes += ((Number) row.get("raw")).longValue();
+            storedBytes += ((Number) row.get("stored")).longValue();
+        }
+        res.put("chunksByCodec", chunksByCodec);
+        res.put("externalRawBytes", rawBytes);
+        res.put("externalStoredBytes", storedBytes);
+        res.put("compressionRatio", storedBytes == 0 ? 1.0 : (double) rawBytes / storedBytes);
+        return res;
+    }
+
+    private static String codecName(int codec) {
+        return switch (codec) {
+            case CODEC_RAW -> "raw";
+            case CODEC_DEFLATE -> "deflate";
+            case CODEC_STORED -> "stored";
+            default -> "codec" + codec;
+        };
+    }
+
+    /**
+     * Deflate at the fastest level; returns null when compression doesn't pay off.
+     */
+    public static byte[] deflate(byte[] raw) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(raw);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(raw.length / 2);
+            byte[] buffer = new byte[8192];
+            while (!deflater.finished()) {
+                int n = deflater.deflate(buffer);
+                out.write(buffer, 0, n);
+                if (out.size() >= raw.length) {
+                    return null;
+                }
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    public static byte[] decode(int codec, byte[] data, int rawSize) {
+        if (codec == CODEC_RAW || codec == CODEC_STORED) {
+            return data;
+        }
+        if (codec != CODEC_DEFLATE) {
+            throw new IllegalStateException("Unknown note chunk codec: " + codec);
+        }
+
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(data);
+            byte[] raw = new byte[rawSize];
+            int n = 0;
+            while (n < rawSize && !inflater.finished()) {
+                int read = inflater.inflate(raw, n, rawSize - n);
+                if (read == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                n += read;
+            }
+            return n == rawSize ? raw : Arrays.copyOf(raw, n);
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Corrupt note chunk", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    public record BlobInfo(long size, int chunkSize) {}
+
+    private record Packed(int codec, byte[] data) {}
+
+    private record RawChunk(long noteId, int seq, byte[] data) {}
+
+    /**
+     * Thrown when an uploaded body exceeds app.notes.content.max-bytes.
+     */
+    public static class ContentTooLargeException extends RuntimeException {
+        public ContentTooLargeException() {
+            super("note content too large");
+        }
+    }
+}
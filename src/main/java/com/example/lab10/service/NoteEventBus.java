@@ -0,0 +1,336 @@
+package com.example.lab10.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Per-user change feed for notes, delivered as Server-Sent Events (GET /notes/stream).
+ *
+ * Connections are async servlet requests, so an idle stream holds no thread; sends run on
+ * virtual threads, one drain at a time per connection. Each connection has a bounded queue:
+ * a client that can't keep up is disconnected and resumes with Last-Event-ID from the
+ * user's bounded in-memory event log (or gets a "reset" event if the log no longer reaches back).
+ * Each user has their own log, so a busy user can't evict another user's resume window.
+ */
+@Component
+public class NoteEventBus {
+
+    private static final Logger logger = LoggerFactory.getLogger(NoteEventBus.class);
+
+    public static final String CREATED = "created";
+    public static final String UPDATED = "updated";
+    public static final String DELETED = "deleted";
+    // Sent instead of a replay when missed events are no longer in the log: refetch GET /notes
+    public static final String RESET = "reset";
+
+    private static final Object HEARTBEAT = new Object();
+
+    // Events kept per user for Last-Event-ID resumes
+    @Value("${app.notes.events.log-size:256}")
+    private int logSize;
+
+    // Users with a resume log; the least recently active user's log is dropped beyond this
+    @Value("${app.notes.events.log-users:1024}")
+    private int maxLoggedUsers;
+
+    @Value("${app.notes.events.max-queued:64}")
+    private int maxQueued;
+
+    @Value("${app.notes.events.max-connections-per-user:5}")
+    private int maxConnectionsPerUser;
+
+    @Value("${app.notes.events.timeout-ms:300000}")
+    private long timeoutMillis;
+
+    // Guarded by logLock; sequence numbers are assigned under the same lock, so every log is ordered.
+    // A ReentrantLock rather than synchronized: publishers may be virtual threads, which
+    // synchronized would pin to their carrier while waiting.
+    private final ReentrantLock logLock = new ReentrantLock();
+    // Access order: the eldest entry is the user who published or resumed least recently
+    private final LinkedHashMap<String, UserLog> logs = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, UserLog> eldest) {
+            if (size() <= maxLoggedUsers) {
+                return false;
+            }
+            // That user's events are gone; their resumes from before this point get a reset
+            droppedUpTo = Math.max(droppedUpTo, eldest.getValue().lastId());
+            return true;
+        }
+    };
+    private long sequence;
+    // Highest event id of any dropped user log
+    private long droppedUpTo;
+
+    // Sets are only added to / removed from inside compute calls, so the per-user cap is atomic
+    // and a user's set disappears with their last stream
+    private final Map<String, Set<Subscription>> subscribers = new ConcurrentHashMap<>();
+    private final ExecutorService sender = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final LongAdder published = new LongAdder();
+    private final LongAdder overflowDisconnects = new LongAdder();
+
+    /**
+     * Records a change and pushes it to the user's open streams.
+     */
+    public void publish(String username, String type, long noteId) {
+        published.increment();
+        logLock.lock();
+        try {
+            NoteEvent event = new NoteEvent(++sequence, username, type, noteId);
+            logs.computeIfAbsent(username, k -> new UserLog(droppedUpTo)).add(event, logSize);
+            // Enqueue under the lock too, so a stream that is replaying can't see events out of order
+            for (Subscription sub : subscribers.getOrDefault(username, Set.of())) {
+                sub.enqueue(event);
+            }
+        } finally {
+            logLock.unlock();
+        }
+    }
+
+    /**
+     * Opens a stream for the user, replaying events after {@code lastEventId} when given.
+     * Returns null if the user already has the maximum number of open streams.
+     */
+    public SseEmitter subscribe(String username, String lastEventId) {
+        SseEmitter emitter = newEmitter(timeoutMillis);
+        Subscription sub = new Subscription(username, emitter);
+        emitter.onCompletion(sub::close);
+        // Completing on timeout lets the client reconnect instead of getting an async timeout error
+        emitter.onTimeout(sub::close);
+        emitter.onError(e -> sub.close());
+
+        Long resumeAfter = parseEventId(lastEventId);
+        logLock.lock();
+        try {
+            // Registered under logLock, so no event is published between the replay and the live feed
+            if (!admit(username, sub)) {
+                return null;
+            }
+            if (resumeAfter != null) {
+                UserLog log = logs.get(username);
+                long evictedUpTo = log != null ? log.evictedUpTo : droppedUpTo;
+                if (resumeAfter < evictedUpTo || resumeAfter > sequence
+                        || missedEvents(log, resumeAfter) >= maxQueued) {
+                    // Gap (events evicted), an id from before a restart, or more missed events
+                    // than the queue holds (replaying would overflow it): client must refetch
+                    sub.enqueue(new NoteEvent(sequence, username, RESET, 0));
+                } else if (log != null) {
+                    for (NoteEvent event : log.events) {
+                        if (event.id() > resumeAfter) {
+                            sub.enqueue(event);
+                        }
+                    }
+                }
+            }
+        } finally {
+            logLock.unlock();
+        }
+        // Flushes the response headers right away
+        sub.enqueue(HEARTBEAT);
+        return emitter;
+    }
+
+    /**
+     * Number of logged events after {@code resumeAfter}. Called under logLock.
+     */
+    private static int missedEvents(UserLog log, long resumeAfter) {
+        if (log == null) {
+            return 0;
+        }
+        int missed = 0;
+        Iterator<NoteEvent> newestFirst = log.events.descendingIterator();
+        while (newestFirst.hasNext() && newestFirst.next().id() > resumeAfter) {
+            missed++;
+        }
+        return missed;
+    }
+
+    /**
+     * Adds the stream unless the user is at the limit; check and add are one atomic step.
+     */
+    private boolean admit(String username, Subscription sub) {
+        boolean[] admitted = new boolean[1];
+        subscribers.compute(username, (k, subs) -> {
+            if (subs == null) {
+                subs = ConcurrentHashMap.newKeySet();
+            }
+            if (subs.size() < maxConnectionsPerUser) {
+                admitted[0] = subs.add(sub);
+            }
+            return subs.isEmpty() ? null : subs;
+        });
+        return admitted[0];
+    }
+
+    /**
+     * Creates the emitter for a new stream.
+     */
+    protected SseEmitter newEmitter(long timeoutMillis) {
+        return new SseEmitter(timeoutMillis);
+    }
+
+    /**
+     * Keeps idle connections (and proxies in between) alive; also detects dead clients.
+     */
+    @Scheduled(fixedRateString = "${app.notes.events.heartbeat-ms:15000}")
+    public void heartbeat() {
+        subscribers.values().forEach(subs -> subs.forEach(sub -> {
+            if (sub.queue.isEmpty()) {
+                sub.enqueue(HEARTBEAT);
+            }
+        }));
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> res = new LinkedHashMap<>();
+        res.put("connections", subscribers.values().stream().mapToInt(Set::size).sum());
+        res.put("users", subscribers.size());
+        res.put("published", published.sum());
+        res.put("overflowDisconnects", overflowDisconnects.sum());
+        logLock.lock();
+        try {
+            res.put("loggedUsers", logs.size());
+            res.put("logSize", logs.values().stream().mapToInt(log -> log.events.size()).sum());
+            res.put("lastEventId", sequence);
+        } finally {
+            logLock.unlock();
+        }
+        return res;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        subscribers.values().forEach(subs -> subs.forEach(sub -> sub.emitter.complete()));
+        sender.shutdownNow();
+    }
+
+    private static Long parseEventId(String lastEventId) {
+        if (lastEventId == null || lastEventId.isBlank()) {
+            return null;
+        }
+        try {
+            return Long.parseLong(lastEventId.trim());
+        } catch (NumberFormatException e) {
+            return -1L;
+        }
+    }
+
+    public record NoteEvent(long id, String username, String type, long noteId) {}
+
+    /**
+     * One user's most recent events. Guarded by logLock.
+     */
+    private static final class UserLog {
+
+        private final ArrayDeque<NoteEvent> events = new ArrayDeque<>();
+        // Id of the newest event pushed out of this log; resumes from before it get a reset
+        private long evictedUpTo;
+
+        // A log created after older logs were dropped can't vouch for what came before
+        UserLog(long evictedUpTo) {
+            this.evictedUpTo = evictedUpTo;
+        }
+
+        void add(NoteEvent event, int maxSize) {
+            events.addLast(event);
+            if (events.size() > maxSize) {
+                evictedUpTo = events.removeFirst().id();
+            }
+        }
+
+        long lastId() {
+            NoteEvent last = events.peekLast();
+            return last != null ? last.id() : evictedUpTo;
+        }
+    }
+
+    private final class Subscription {
+
+        private final String username;
+        private final SseEmitter emitter;
+        private final BlockingQueue<Object> queue = new ArrayBlockingQueue<>(maxQueued);
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        Subscription(String username, SseEmitter emitter) {
+            this.username = username;
+            this.emitter = emitter;
+        }
+
+        void enqueue(Object item) {
+            if (closed.get()) {
+                return;
+            }
+            if (!queue.offer(item)) {
+                // Backpressure: drop the slow client, it resumes from the log on reconnect
+                overflowDisconnects.increment();
+                logger.debug("Note stream queue full, disconnecting a stream of user {}", username);
+                close();
+                emitter.complete();
+                return;
+            }
+            if (draining.compareAndSet(false, true)) {
+                sender.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            do {
+                Object item;
+                while (!closed.get() && (item = queue.poll()) != null) {
+                    send(item);
+                }
+                draining.set(false);
+                // Re-check: an item may have been queued after the last poll
+            } while (!closed.get() && !queue.isEmpty() && draining.compareAndSet(false, true));
+        }
+
+        private void send(Object item) {
+            try {
+                if (item == HEARTBEAT) {
+                    emitter.send(SseEmitter.event().comment("heartbeat"));
+                } else {
+                    NoteEvent event = (NoteEvent) item;
+                    emitter.send(SseEmitter.event()
+                            .id(String.valueOf(event.id()))
+                            .name(event.type())
+                            .data(Map.of("type", event.type(), "noteId", event.noteId())));
+                }
+            } catch (IOException | IllegalStateException e) {
+                // Client went away (or the emitter already completed)
+                close();
+            }
+        }
+
+        void close() {
+            if (closed.compareAndSet(false, true)) {
+                queue.clear();
+                subscribers.computeIfPresent(username, (k, subs) -> {
+                    subs.remove(this);
+                    return subs.isEmpty() ? null : subs;
+                });
+            }
+        }
+    }
+}
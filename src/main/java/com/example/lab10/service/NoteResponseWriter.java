@@ -0,0 +1,100 @@
+package com.example.lab10.service;
+
+import com.example.lab10.dto_.NoteFields;
+import com.example.lab10.dto_.NoteView;
+import org.springframework.stereotype.Component;
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.dataformat.cbor.CBORMapper;
+import tools.jackson.dataformat.smile.SmileMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+
+/**
+ * Hand-written serializer for the hottest response shapes (GET /notes, GET /notes/{id}).
+ *
+ * Writes notes straight to a pre-sized buffer with the streaming generator of the
+ * negotiated {@link ResponseFormat}: no per-note map, no reflection or property
+ * introspection. Produces the same document as {@link NoteFields#toMap(NoteView)}
+ * serialized by databind (fields in a fixed order).
+ */
+@Component
+public class NoteResponseWriter {
+
+    // Braces, field names, numbers and punctuation of one fully populated note
+    private static final int NOTE_OVERHEAD_BYTES = 96;
+
+    private final ObjectMapper jsonMapper;
+    // Only their generators are used, so no shared configuration is needed
+    private final ObjectMapper cborMapper = CBORMapper.builder().build();
+    private final ObjectMapper smileMapper = SmileMapper.builder().build();
+
+    public NoteResponseWriter(ObjectMapper jsonMapper) {
+        this.jsonMapper = jsonMapper;
+    }
+
+    public byte[] writeList(List<NoteView> notes, NoteFields fields, ResponseFormat format) {
+        int estimate = 2;
+        for (NoteView note : notes) {
+            estimate += estimate(note, fields);
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream(estimate);
+        try (JsonGenerator gen = mapper(format).createGenerator(out)) {
+            gen.writeStartArray();
+            for (NoteView note : notes) {
+                write(gen, note, fields);
+            }
+            gen.writeEndArray();
+        }
+        return out.toByteArray();
+    }
+
+    public byte[] writeNote(NoteView note, NoteFields fields, ResponseFormat format) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(estimate(note, fields));
+        try (JsonGenerator gen = mapper(format).createGenerator(out)) {
+            write(gen, note, fields);
+        }
+        return out.toByteArray();
+    }
+
+    private ObjectMapper mapper(ResponseFormat format) {
+        return switch (format) {
+            case JSON -> jsonMapper;
+            case CBOR -> cborMapper;
+            case SMILE -> smileMapper;
+        };
+    }
+
+    private static void write(JsonGenerator gen, NoteView note, NoteFields fields) {
+        gen.writeStartObject();
+        if (fields.includes(NoteFields.Field.ID)) {
+            gen.writeNumberProperty("id", note.id());
+        }
+        if (fields.includes(NoteFields.Field.TITLE)) {
+            gen.writeStringProperty("title", note.title());
+        }
+        if (fields.includes(NoteFields.Field.CONTENT)) {
+            gen.writeStringProperty("content", note.content());
+            if (note.contentExternal()) {
+                gen.writeStringProperty("contentUrl", "/notes/" + note.id() + "/content");
+            }
+        }
+        if (fields.includes(NoteFields.Field.VERSION)) {
+            gen.writeNumberProperty("version", note.version());
+        }
+        gen.writeEndObject();
+    }
+
+    // Close enough for ASCII text; the buffer grows if escapes or multi-byte characters need more
+    private static int estimate(NoteView note, NoteFields fields) {
+        int size = NOTE_OVERHEAD_BYTES;
+        if (fields.includes(NoteFields.Field.TITLE) && note.title() != null) {
+            size += note.title().length();
+        }
+        if (fields.includes(NoteFields.Field.CONTENT) && note.content() != null) {
+            size += note.content().length();
+        }
+        return size;
+    }
+}
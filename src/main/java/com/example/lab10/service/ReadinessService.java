@@ -0,0 +1,123 @@
+package com.example.lab10.service;
+
+import org.flywaydb.core.Flyway;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Readiness of this node for traffic: SQLite reachable, migrations applied, warm-up done.
+ *
+ * Checks run in the background and the probe response body is rebuilt only when the
+ * state changes, so a probe itself never touches the database or allocates.
+ */
+@Service
+public class ReadinessService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReadinessService.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectProvider<Flyway> flyway;
+
+    private volatile boolean databaseUp;
+    private volatile boolean migrated;
+    private volatile boolean warmedUp;
+    private volatile boolean warmupHeld;
+
+    private volatile boolean ready;
+    private volatile byte[] body = render(false, false, false);
+    // Flags the current body was rendered from (bits: database 1, migrations 2, warm-up 4)
+    private int renderedState;
+
+    public ReadinessService(JdbcTemplate jdbcTemplate, ObjectProvider<Flyway> flyway) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.flyway = flyway;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Precomputed JSON body for the current state.
+     */
+    public byte[] body() {
+        return body;
+    }
+
+    /**
+     * Keeps the node out of rotation until {@link #warmupComplete()} (called by the warm-up runner).
+     */
+    public void holdWarmup() {
+        warmupHeld = true;
+    }
+
+    public void warmupComplete() {
+        warmupHeld = false;
+        warmedUp = true;
+        update();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    void onApplicationReady() {
+        if (!warmupHeld) {
+            warmedUp = true;
+        }
+        check();
+    }
+
+    @Scheduled(fixedDelayString = "${app.health.check-interval-ms:2000}")
+    public void check() {
+        boolean db;
+        try {
+            jdbcTemplate.queryForObject("SELECT 1", Integer.class);
+            db = true;
+        } catch (RuntimeException e) {
+            db = false;
+        }
+        databaseUp = db;
+
+        // Pending migrations only change at startup; stop asking once they're applied
+        if (!migrated) {
+            Flyway fw = flyway.getIfAvailable();
+            migrated = fw == null || fw.info().pending().length == 0;
+        }
+        update();
+    }
+
+    // Synchronized: the scheduled check and warmupComplete() may update concurrently
+    private synchronized void update() {
+        boolean database = databaseUp;
+        boolean migrations = migrated;
+        boolean warmup = warmedUp;
+        int state = (database ? 1 : 0) | (migrations ? 2 : 0) | (warmup ? 4 : 0);
+        if (state == renderedState) {
+            return;
+        }
+
+        boolean now = database && migrations && warmup;
+        byte[] rendered = render(database, migrations, warmup);
+        if (now != ready) {
+            logger.info("Readiness changed: {}", new String(rendered, StandardCharsets.UTF_8));
+        }
+        body = rendered;
+        ready = now;
+        renderedState = state;
+    }
+
+    private static byte[] render(boolean database, boolean migrations, boolean warmup) {
+        boolean up = database && migrations && warmup;
+        return ("{\"status\":\"" + (up ? "UP" : "DOWN") + "\",\"checks\":{"
+                + "\"database\":\"" + (database ? "UP" : "DOWN") + "\","
+                + "\"migrations\":\"" + (migrations ? "UP" : "DOWN") + "\","
+                + "\"warmup\":\"" + (warmup ? "UP" : "DOWN") + "\"}}")
+                .getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.lab10.service;
+
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+
+import java.util.List;
+
+/**
+ * Wire formats of the notes and auth APIs: JSON, plus CBOR and Smile (binary encodings of
+ * the same data model) for clients that ask for them. Message converters negotiate them for
+ * DTO responses; endpoints that serve pre-serialized bytes use {@link #negotiate(String)}.
+ */
+public enum ResponseFormat {
+
+    JSON(MediaType.APPLICATION_JSON),
+    CBOR(MediaType.APPLICATION_CBOR),
+    SMILE(new MediaType("application", "x-jackson-smile"));
+
+    private final MediaType mediaType;
+
+    ResponseFormat(MediaType mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public MediaType mediaType() {
+        return mediaType;
+    }
+
+    /**
+     * Cache variant / ETag suffix: empty for JSON, so JSON tags and keys are unchanged.
+     */
+    public String suffix() {
+        return this == JSON ? "" : "-" + name().toLowerCase();
+    }
+
+    /**
+     * Picks the format for an Accept header: highest quality wins, a specific type beats a
+     * wildcard of the same quality. Missing, invalid or unsupported Accept means JSON.
+     */
+    public static ResponseFormat negotiate(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return JSON;
+        }
+        List<MediaType> accepted;
+        try {
+            accepted = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException e) {
+            return JSON;
+        }
+
+        ResponseFormat best = JSON;
+        double bestQuality = -1;
+        boolean bestSpecific = false;
+        for (MediaType type : accepted) {
+            double quality = type.getQualityValue();
+            if (quality <= 0) {
+                continue;
+            }
+            ResponseFormat format = null;
+            boolean specific = true;
+            for (ResponseFormat candidate : values()) {
+                if (candidate.mediaType.equalsTypeAndSubtype(type)) {
+                    format = candidate;
+                }
+            }
+            if (format == null && type.includes(JSON.mediaType)) {
+                // */* or application/*
+                format = JSON;
+                specific = false;
+            }
+            if (format != null && (quality > bestQuality || (quality == bestQuality && specific && !bestSpecific))) {
+                best = format;
+                bestQuality = quality;
+                bestSpecific = specific;
+            }
+        }
+        return best;
+    }
+}
@@ -0,0 +1,253 @@
+package com.example.lab10.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Windowed counters for security events (failed logins, denials, rate-limit hits, ...)
+ * instead of one log line per event, which under attack makes the file appenders the
+ * bottleneck.
+ *
+ * Events are counted per window (default one minute) by type, masked username and client
+ * IP prefix (/24 for IPv4, /48 for IPv6). Each closed window is logged as a single summary
+ * line and kept for GET /admin/security/events. Raw per-event lines are optional and
+ * sampled (app.security.events.raw-sample-rate).
+ */
+@Component
+public class SecurityEventAggregator {
+
+    private static final Logger logger = LoggerFactory.getLogger(SecurityEventAggregator.class);
+
+    public enum Type {
+        LOGIN_SUCCESS,
+        LOGIN_FAILURE,
+        AUTHORIZATION_DENIED,
+        RATE_LIMITED,
+        REFRESH_REJECTED,
+        REGISTRATION_REJECTED
+    }
+
+    // Events beyond max-keys distinct keys in one window are counted under this label
+    static final String OVERFLOW = "*";
+
+    private static final Pattern IPV4 = Pattern.compile("(\\d{1,3})\\.(\\d{1,3})\\.(\\d{1,3})\\.(\\d{1,3})");
+    private static final Pattern IPV6_CHARS = Pattern.compile("[0-9a-fA-F:.]*:[0-9a-fA-F:.]*");
+
+    @Value("${app.security.events.history:60}")
+    private int history;
+
+    @Value("${app.security.events.max-keys:10000}")
+    private int maxKeys;
+
+    @Value("${app.security.events.summary-top:5}")
+    private int summaryTop;
+
+    @Value("${app.security.events.raw-sample-rate:0.0}")
+    private double rawSampleRate;
+
+    private final AtomicReference<Window> current = new AtomicReference<>(new Window(Instant.now()));
+
+    // Guarded by historyLock
+    private final ReentrantLock historyLock = new ReentrantLock();
+    private final ArrayDeque<Rollup> closed = new ArrayDeque<>();
+
+    /**
+     * Counts one event. Cheap enough for every request: a map lookup and a LongAdder increment.
+     */
+    public void record(Type type, String username, String clientIp) {
+        String user = maskUsername(username);
+        String prefix = ipPrefix(clientIp);
+
+        Window window = current.get();
+        Key key = new Key(type, user, prefix);
+        LongAdder counter = window.counts.get(key);
+        if (counter == null) {
+            if (window.counts.size() >= maxKeys) {
+                key = new Key(type, OVERFLOW, OVERFLOW);
+            }
+            counter = window.counts.computeIfAbsent(key, k -> new LongAdder());
+        }
+        counter.increment();
+
+        if (rawSampleRate > 0 && ThreadLocalRandom.current().nextDouble() < rawSampleRate) {
+            logger.warn("SECURITY: {} - user: {}, ip: {} (sampled, rate {})", type, user, clientIp, rawSampleRate);
+        }
+    }
+
+    /**
+     * Closes the current window: one summary line, and the rollup joins the history.
+     * An increment racing with the swap can land in the closed window after it was read;
+     * such an event is not counted, which is acceptable for monitoring.
+     */
+    @Scheduled(fixedRateString = "${app.security.events.window-ms:60000}",
+            initialDelayString = "${app.security.events.window-ms:60000}")
+    public void rollover() {
+        Instant now = Instant.now();
+        Window window = current.getAndSet(new Window(now));
+        Rollup rollup = window.close(now);
+
+        historyLock.lock();
+        try {
+            closed.addLast(rollup);
+            while (closed.size() > history) {
+                closed.removeFirst();
+            }
+        } finally {
+            historyLock.unlock();
+        }
+
+        if (!rollup.counts().isEmpty()) {
+            // WARN, not INFO: the prod async appenders discard INFO under pressure, which is
+            // exactly when a summary matters, and there is only one line per window
+            logger.warn("SECURITY summary {} - {}: {} events {} top {}",
+                    rollup.start(), rollup.end(), rollup.total(), rollup.byType(),
+                    rollup.counts().stream().limit(summaryTop)
+                            .map(c -> c.type() + " " + c.user() + " " + c.ipPrefix() + " x" + c.count())
+                            .collect(Collectors.joining(", ", "[", "]")));
+        }
+    }
+
+    /**
+     * The last {@code minutes} closed windows (newest first) plus the open one so far.
+     */
+    public Map<String, Object> stats(int minutes) {
+        Map<String, Object> res = new LinkedHashMap<>();
+        Window window = current.get();
+        res.put("current", window.close(Instant.now()));
+
+        List<Rollup> recent = new ArrayList<>();
+        historyLock.lock();
+        try {
+            closed.descendingIterator().forEachRemaining(r -> {
+                if (recent.size() < minutes) {
+                    recent.add(r);
+                }
+            });
+        } finally {
+            historyLock.unlock();
+        }
+        res.put("windows", recent);
+        res.put("rawSampleRate", rawSampleRate);
+        return res;
+    }
+
+    /**
+     * Shows first 2 characters, masks the rest.
+     */
+    public static String maskUsername(String username) {
+        if (username == null || username.length() <= 2) {
+            return "***";
+        }
+        return username.substring(0, 2) + "***";
+    }
+
+    /**
+     * 203.0.113.7 -> 203.0.113.0/24, 2001:db8:1:2::5 -> 2001:db8:1::/48.
+     * Anything that is not a single IP literal is counted as "invalid" rather than sliced
+     * into a prefix, so arbitrary text can't create new keys.
+     */
+    public static String ipPrefix(String ip) {
+        if (ip == null || ip.isBlank()) {
+            return "unknown";
+        }
+        byte[] address = parseIpLiteral(ip.trim());
+        if (address == null) {
+            return "invalid";
+        }
+        if (address.length == 4) {
+            return (address[0] & 0xff) + "." + (address[1] & 0xff) + "." + (address[2] & 0xff) + ".0/24";
+        }
+        StringBuilder prefix = new StringBuilder();
+        for (int i = 0; i < 6; i += 2) {
+            int group = (address[i] & 0xff) << 8 | address[i + 1] & 0xff;
+            prefix.append(i == 0 ? "" : ":").append(Integer.toHexString(group));
+        }
+        return prefix + "::/48";
+    }
+
+    /**
+     * Address bytes of an IPv4 or IPv6 literal, or null. Never resolves a host name: IPv4 is
+     * matched here, and a string containing ':' is only ever parsed as an IPv6 literal.
+     */
+    private static byte[] parseIpLiteral(String ip) {
+        Matcher v4 = IPV4.matcher(ip);
+        if (v4.matches()) {
+            byte[] address = new byte[4];
+            for (int i = 0; i < 4; i++) {
+                int octet = Integer.parseInt(v4.group(i + 1));
+                if (octet > 255) {
+                    return null;
+                }
+                address[i] = (byte) octet;
+            }
+            return address;
+        }
+        int zone = ip.indexOf('%');
+        String literal = zone >= 0 ? ip.substring(0, zone) : ip;
+        if (!IPV6_CHARS.matcher(literal).matches()) {
+            return null;
+        }
+        try {
+            // IPv4-mapped addresses come back as Inet4Address (4 bytes)
+            return InetAddress.getByName(literal).getAddress();
+        } catch (UnknownHostException e) {
+            return null;
+        }
+    }
+
+    private record Key(Type type, String user, String ipPrefix) {}
+
+    public record Count(Type type, String user, String ipPrefix, long count) {}
+
+    /**
+     * A closed window; counts are sorted by count, largest first.
+     */
+    public record Rollup(Instant start, Instant end, long total, Map<Type, Long> byType, List<Count> counts) {}
+
+    private static final class Window {
+
+        final Instant start;
+        final Map<Key, LongAdder> counts = new ConcurrentHashMap<>();
+
+        Window(Instant start) {
+            this.start = start;
+        }
+
+        Rollup close(Instant end) {
+            List<Count> list = new ArrayList<>(counts.size());
+            Map<Type, Long> byType = new EnumMap<>(Type.class);
+            long total = 0;
+            for (Map.Entry<Key, LongAdder> e : counts.entrySet()) {
+                long n = e.getValue().sum();
+                Key k = e.getKey();
+                list.add(new Count(k.type(), k.user(), k.ipPrefix(), n));
+                byType.merge(k.type(), n, Long::sum);
+                total += n;
+            }
+            list.sort(Comparator.comparingLong(Count::count).reversed());
+            return new Rollup(start, end, total, byType, list);
+        }
+    }
+}
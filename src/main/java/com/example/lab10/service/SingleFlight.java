@@ -0,0 +1,106 @@
+package com.example.lab10.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent loads of the same key: while one caller runs the loader,
+ * other callers asking for the same key wait for and share its result
+ * (one database round trip instead of N).
+ *
+ * Nothing is cached - once the load finishes the next caller starts a new one.
+ * Shared values must therefore be safe to hand to several threads (immutable or copied).
+ *
+ * A load that started before a write may return pre-write data; writers call {@link #forget}
+ * after committing so that later callers start a fresh load instead of joining it.
+ */
+public class SingleFlight<K, V> {
+
+    private final String name;
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+
+    public SingleFlight(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public V load(K key, Supplier<V> loader) {
+        calls.increment();
+
+        CompletableFuture<V> mine = new CompletableFuture<>();
+        CompletableFuture<V> running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            return join(running);
+        }
+
+        loads.increment();
+        try {
+            V value = loader.get();
+            mine.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    /**
+     * Detaches the in-flight load for a key (if any): callers already waiting keep its result,
+     * new callers start their own load.
+     */
+    public void forget(K key) {
+        inFlight.remove(key);
+    }
+
+    /**
+     * {@link #forget} for every in-flight key matching the predicate.
+     */
+    public void forgetIf(Predicate<? super K> matches) {
+        inFlight.keySet().removeIf(matches);
+    }
+
+    private static <V> V join(CompletableFuture<V> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            // Waiters see the loader's own exception, like the caller that ran it
+            if (e.getCause() instanceof RuntimeException re) {
+                throw re;
+            }
+            if (e.getCause() instanceof Error err) {
+                throw err;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * calls / loads / coalesced (= database round trips saved) and the coalescing ratio.
+     */
+    public Map<String, Object> stats() {
+        long callCount = calls.sum();
+        long loadCount = loads.sum();
+
+        Map<String, Object> res = new LinkedHashMap<>();
+        res.put("calls", callCount);
+        res.put("loads", loadCount);
+        res.put("coalesced", callCount - loadCount);
+        res.put("coalescingRatio", callCount == 0 ? 0.0 : (double) (callCount - loadCount) / callCount);
+        res.put("inFlight", inFlight.size());
+        return res;
+    }
+}
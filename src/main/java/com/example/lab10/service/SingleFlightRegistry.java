@@ -0,0 +1,27 @@
+package com.example.lab10.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Named SingleFlight instances, so their coalescing stats can be reported in one place.
+ */
+@Component
+public class SingleFlightRegistry {
+
+    private final Map<String, SingleFlight<?, ?>> flights = new ConcurrentHashMap<>();
+
+    @SuppressWarnings("unchecked")
+    public <K, V> SingleFlight<K, V> get(String name) {
+        return (SingleFlight<K, V>) flights.computeIfAbsent(name, SingleFlight::new);
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> res = new TreeMap<>();
+        flights.forEach((name, flight) -> res.put(name, flight.stats()));
+        return res;
+    }
+}
@@ -138,6 +138,8 @@ public class TokenService {
 
     /**
      * Checks if an access token is blacklisted.
+     * Not coalesced: a check that joined a lookup started before a logout committed
+     * would still accept the revoked token.
      */
     public boolean isTokenBlacklisted(String token) {
         return blacklistedTokenRepository.existsByToken(token);
@@ -0,0 +1,137 @@
+package com.example.lab10.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Captures JFR jdk.VirtualThreadPinned events in-process (virtual-thread mode).
+ *
+ * A virtual thread is pinned to its carrier while it blocks inside a native call
+ * (every sqlite-jdbc statement) or a synchronized block. Events above the threshold
+ * are grouped by pinning site (top frame + first application frame); the first
+ * occurrence of each site is logged with its stack.
+ */
+@Component
+@ConditionalOnProperty(name = "app.diagnostics.pinning.enabled", havingValue = "true")
+public class VirtualThreadPinningMonitor {
+
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+
+    private static final String EVENT = "jdk.VirtualThreadPinned";
+    private static final String APP_PACKAGE = "com.example.lab10.";
+    private static final int LOGGED_FRAMES = 12;
+
+    @Value("${app.diagnostics.pinning.threshold-ms:20}")
+    private long thresholdMillis;
+
+    private RecordingStream stream;
+
+    private final Map<String, Site> sites = new ConcurrentHashMap<>();
+    private final LongAdder events = new LongAdder();
+
+    @PostConstruct
+    void start() {
+        stream = new RecordingStream();
+        stream.enable(EVENT).withThreshold(Duration.ofMillis(thresholdMillis)).withStackTrace();
+        stream.onEvent(EVENT, this::onPinned);
+        stream.startAsync();
+        logger.info("Virtual thread pinning capture started (threshold {} ms)", thresholdMillis);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+
+    private void onPinned(RecordedEvent event) {
+        events.increment();
+        List<RecordedFrame> frames = frames(event.getStackTrace());
+        String key = describe(frames.isEmpty() ? null : frames.get(0)) + " <- " + describe(firstAppFrame(frames));
+
+        Site site = sites.computeIfAbsent(key, k -> new Site());
+        long nanos = event.getDuration().toNanos();
+        site.count.increment();
+        site.totalNanos.add(nanos);
+        site.maxNanos.accumulateAndGet(nanos, Math::max);
+
+        if (site.logged.compareAndSet(false, true)) {
+            logger.warn("Virtual thread pinned for {} ms at {}\n{}", nanos / 1_000_000, key,
+                    frames.stream().limit(LOGGED_FRAMES)
+                            .map(f -> "    at " + describe(f))
+                            .collect(Collectors.joining("\n")));
+        }
+    }
+
+    private static List<RecordedFrame> frames(RecordedStackTrace stackTrace) {
+        return stackTrace == null ? List.of() : stackTrace.getFrames();
+    }
+
+    private static RecordedFrame firstAppFrame(List<RecordedFrame> frames) {
+        return frames.stream()
+                .filter(f -> f.getMethod() != null && f.getMethod().getType().getName().startsWith(APP_PACKAGE))
+                .findFirst()
+                .orElse(null);
+    }
+
+    private static String describe(RecordedFrame frame) {
+        if (frame == null || frame.getMethod() == null) {
+            return "?";
+        }
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                + ":" + frame.getLineNumber();
+    }
+
+    /**
+     * Pinning events per site, most frequent first.
+     */
+    public Map<String, Object> stats() {
+        Map<String, Object> res = new LinkedHashMap<>();
+        res.put("thresholdMs", thresholdMillis);
+        res.put("events", events.sum());
+
+        Map<String, Object> bySite = new LinkedHashMap<>();
+        sites.entrySet().stream()
+                .sorted(Comparator.comparingLong((Map.Entry<String, Site> e) -> e.getValue().count.sum()).reversed())
+                .limit(20)
+                .forEach(e -> {
+                    Site s = e.getValue();
+                    long count = s.count.sum();
+                    Map<String, Object> m = new LinkedHashMap<>();
+                    m.put("count", count);
+                    m.put("avgMs", count == 0 ? 0.0 : s.totalNanos.sum() / 1e6 / count);
+                    m.put("maxMs", s.maxNanos.get() / 1e6);
+                    bySite.put(e.getKey(), m);
+                });
+        res.put("sites", bySite);
+        return res;
+    }
+
+    private static final class Site {
+        final LongAdder count = new LongAdder();
+        final LongAdder totalNanos = new LongAdder();
+        final AtomicLong maxNanos = new AtomicLong();
+        final AtomicBoolean logged = new AtomicBoolean();
+    }
+}
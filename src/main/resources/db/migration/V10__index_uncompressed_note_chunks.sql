@@ -0,0 +1,4 @@
+-- Chunk codecs: 0 = raw (written with compression off), 1 = deflate,
+-- 2 = stored (raw, compression tried and didn't pay off).
+-- The background recompression job only looks for codec 0; keep that lookup off a full scan.
+CREATE INDEX IF NOT EXISTS idx_note_blob_chunks_raw ON note_blob_chunks(note_id, seq) WHERE codec = 0;
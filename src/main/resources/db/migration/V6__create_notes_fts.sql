@@ -0,0 +1,29 @@
+-- Full-text index over notes.title / notes.content (SQLite FTS5).
+-- External-content table: the text lives only in `notes`, FTS5 keeps the index.
+CREATE VIRTUAL TABLE IF NOT EXISTS notes_fts USING fts5(
+    title,
+    content,
+    content='notes',
+    content_rowid='id',
+    tokenize='unicode61 remove_diacritics 2'
+);
+
+-- Keep the index in sync with every write path (JPA, native SQL, batch)
+CREATE TRIGGER IF NOT EXISTS notes_fts_ai AFTER INSERT ON notes BEGIN
+    INSERT INTO notes_fts(rowid, title, content) VALUES (new.id, new.title, new.content);
+END;
+
+CREATE TRIGGER IF NOT EXISTS notes_fts_ad AFTER DELETE ON notes BEGIN
+    INSERT INTO notes_fts(notes_fts, rowid, title, content) VALUES ('delete', old.id, old.title, old.content);
+END;
+
+CREATE TRIGGER IF NOT EXISTS notes_fts_au AFTER UPDATE OF title, content ON notes BEGIN
+    INSERT INTO notes_fts(notes_fts, rowid, title, content) VALUES ('delete', old.id, old.title, old.content);
+    INSERT INTO notes_fts(rowid, title, content) VALUES (new.id, new.title, new.content);
+END;
+
+-- Index notes that existed before this migration
+INSERT INTO notes_fts(notes_fts) VALUES ('rebuild');
+
+-- Search results (and every per-user listing) are scoped by owner
+CREATE INDEX IF NOT EXISTS idx_notes_user_id ON notes(user_id);
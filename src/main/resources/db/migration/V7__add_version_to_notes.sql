@@ -0,0 +1,2 @@
+-- Optimistic-locking version for notes (bumped by every update)
+ALTER TABLE notes ADD COLUMN version INTEGER NOT NULL DEFAULT 0;
@@ -0,0 +1,18 @@
+-- Per-user collection version for notes, used as the validator (ETag) of GET /notes.
+-- Bumped by triggers so every write path (JPA, bulk JPQL, JDBC batch) keeps it current.
+ALTER TABLE users ADD COLUMN notes_version INTEGER NOT NULL DEFAULT 0;
+
+CREATE TRIGGER IF NOT EXISTS notes_version_ai AFTER INSERT ON notes BEGIN
+    UPDATE users SET notes_version = notes_version + 1 WHERE id = new.user_id;
+END;
+
+CREATE TRIGGER IF NOT EXISTS notes_version_au AFTER UPDATE ON notes BEGIN
+    UPDATE users SET notes_version = notes_version + 1 WHERE id IN (old.user_id, new.user_id);
+END;
+
+CREATE TRIGGER IF NOT EXISTS notes_version_ad AFTER DELETE ON notes BEGIN
+    UPDATE users SET notes_version = notes_version + 1 WHERE id = old.user_id;
+END;
+
+-- Every per-user lookup (auth, notes, validators) filters on username
+CREATE INDEX IF NOT EXISTS idx_users_username ON users(username);
@@ -0,0 +1,33 @@
+-- Large note bodies are stored out-of-row, split into fixed-size chunks so they can be
+-- written and streamed (including HTTP Range reads) without holding the whole body in memory.
+-- Small notes keep using notes.content.
+ALTER TABLE notes ADD COLUMN content_external INTEGER NOT NULL DEFAULT 0;
+
+CREATE TABLE IF NOT EXISTS note_blobs (
+    note_id INTEGER PRIMARY KEY,
+    size INTEGER NOT NULL,          -- total uncompressed size in bytes
+    chunk_size INTEGER NOT NULL,    -- uncompressed bytes per chunk (last chunk may be shorter)
+    FOREIGN KEY(note_id) REFERENCES notes(id)
+);
+
+CREATE TABLE IF NOT EXISTS note_blob_chunks (
+    note_id INTEGER NOT NULL,
+    seq INTEGER NOT NULL,
+    codec INTEGER NOT NULL DEFAULT 0,   -- 0 = raw, 1 = deflate
+    raw_size INTEGER NOT NULL,
+    data BLOB NOT NULL,
+    PRIMARY KEY(note_id, seq),
+    FOREIGN KEY(note_id) REFERENCES notes(id)
+);
+
+-- Blob rows never outlive their note, or a switch back to inline content
+CREATE TRIGGER IF NOT EXISTS note_blobs_ad AFTER DELETE ON notes BEGIN
+    DELETE FROM note_blob_chunks WHERE note_id = old.id;
+    DELETE FROM note_blobs WHERE note_id = old.id;
+END;
+
+CREATE TRIGGER IF NOT EXISTS note_blobs_au AFTER UPDATE OF content_external ON notes
+WHEN new.content_external = 0 BEGIN
+    DELETE FROM note_blob_chunks WHERE note_id = new.id;
+    DELETE FROM note_blobs WHERE note_id = new.id;
+END;
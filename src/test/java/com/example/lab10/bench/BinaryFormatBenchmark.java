@@ -0,0 +1,103 @@
+package com.example.lab10.bench;
+
+import com.example.lab10.dto_.NoteFields;
+import com.example.lab10.dto_.NoteView;
+import com.example.lab10.service.NoteResponseWriter;
+import com.example.lab10.service.ResponseFormat;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import tools.jackson.core.type.TypeReference;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.dataformat.cbor.CBORMapper;
+import tools.jackson.dataformat.smile.SmileMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Payload size (raw and gzip) and encode/decode time of a realistic note list
+ * (GET /notes) in JSON, CBOR and Smile. Encoding uses the server's streaming writer,
+ * decoding is what a client does: databind into a list of maps.
+ *
+ * Run with: ./mvnw test -Pbenchmark -Dtest=BinaryFormatBenchmark [-Dbench.notes=500 -Dbench.rounds=2000]
+ */
+@Tag("benchmark")
+@DisplayName("Binary Format Benchmark")
+class BinaryFormatBenchmark {
+
+    private static final int NOTES = Integer.getInteger("bench.notes", 500);
+    private static final int ROUNDS = Integer.getInteger("bench.rounds", 2_000);
+
+    private static final String[] WORDS = {
+            "meeting", "project", "deadline", "review", "budget", "design", "release",
+            "customer", "invoice", "sprint", "backlog", "database", "migration", "server"
+    };
+
+    private static final TypeReference<List<Map<String, Object>>> NOTE_LIST = new TypeReference<>() {};
+
+    private long sink;
+
+    @Test
+    @DisplayName("JSON vs CBOR vs Smile")
+    void formats() throws Exception {
+        Random random = new Random(42);
+        List<NoteView> notes = new ArrayList<>();
+        for (int i = 0; i < NOTES; i++) {
+            StringBuilder content = new StringBuilder();
+            // Mostly short notes, some long ones
+            int words = random.nextInt(10) == 0 ? 400 + random.nextInt(400) : 10 + random.nextInt(60);
+            for (int w = 0; w < words; w++) {
+                content.append(WORDS[random.nextInt(WORDS.length)]).append(' ');
+            }
+            notes.add(new NoteView(100_000L + i, "Note " + i + " " + WORDS[random.nextInt(WORDS.length)],
+                    content.toString().trim(), random.nextInt(20), false));
+        }
+
+        NoteResponseWriter writer = new NoteResponseWriter(JsonMapper.builder().build());
+        Map<ResponseFormat, ObjectMapper> readers = Map.of(
+                ResponseFormat.JSON, JsonMapper.builder().build(),
+                ResponseFormat.CBOR, CBORMapper.builder().build(),
+                ResponseFormat.SMILE, SmileMapper.builder().build());
+
+        System.out.printf("%-6s %10s %10s %12s %12s%n", "format", "bytes", "gzip", "encode µs", "decode µs");
+        for (ResponseFormat format : ResponseFormat.values()) {
+            ObjectMapper reader = readers.get(format);
+            byte[] payload = writer.writeList(notes, NoteFields.ALL, format);
+
+            // Warm-up
+            for (int i = 0; i < ROUNDS / 2; i++) {
+                sink += writer.writeList(notes, NoteFields.ALL, format).length;
+                sink += reader.readValue(payload, NOTE_LIST).size();
+            }
+
+            long t0 = System.nanoTime();
+            for (int i = 0; i < ROUNDS; i++) {
+                sink += writer.writeList(notes, NoteFields.ALL, format).length;
+            }
+            long encode = System.nanoTime() - t0;
+
+            t0 = System.nanoTime();
+            for (int i = 0; i < ROUNDS; i++) {
+                sink += reader.readValue(payload, NOTE_LIST).size();
+            }
+            long decode = System.nanoTime() - t0;
+
+            System.out.printf("%-6s %10d %10d %12.1f %12.1f%n", format, payload.length, gzip(payload).length,
+                    encode / 1e3 / ROUNDS, decode / 1e3 / ROUNDS);
+        }
+    }
+
+    private static byte[] gzip(byte[] data) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gz = new GZIPOutputStream(out)) {
+            gz.write(data);
+        }
+        return out.toByteArray();
+    }
+}
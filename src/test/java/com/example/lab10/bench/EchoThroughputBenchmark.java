@@ -0,0 +1,94 @@
+package com.example.lab10.bench;
+
+import com.example.lab10.Lab10Application;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.ByteArrayInputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+/**
+ * Throughput (MB/s, request + response bytes) of POST /api/echo on the
+ * running app, per body size, with a fixed Content-Length and with chunked transfer.
+ *
+ * Run with: ./mvnw test -Pbenchmark -Dtest=EchoThroughputBenchmark [-Dbench.rounds=50]
+ */
+@Tag("benchmark")
+@DisplayName("Echo Throughput Benchmark")
+class EchoThroughputBenchmark {
+
+    private static final int ROUNDS = Integer.getInteger("bench.rounds", 50);
+    private static final int[] SIZES = {64 * 1024, 1024 * 1024, 8 * 1024 * 1024};
+
+    @Test
+    @DisplayName("Fixed-length vs chunked echo")
+    void echoThroughput() throws Exception {
+        Path dir = Files.createTempDirectory("echo-bench");
+        ConfigurableApplicationContext app = new SpringApplicationBuilder(Lab10Application.class)
+                .properties(
+                        "server.port=0",
+                        "spring.datasource.url=jdbc:sqlite:" + dir.resolve("bench.db"),
+                        "spring.jpa.show-sql=false",
+                        "logging.level.root=WARN",
+                        "app.warmup.enabled=false")
+                .run();
+        try {
+            URI echo = URI.create("http://localhost:" + app.getEnvironment().getProperty("local.server.port") + "/api/echo");
+            HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+            System.out.printf("%-9s %10s %10s %12s%n", "mode", "size", "MB/s", "avg ms");
+            for (int size : SIZES) {
+                byte[] body = new byte[size];
+                new Random(size).nextBytes(body);
+                run(client, echo, body, false);
+                run(client, echo, body, true);
+            }
+        } finally {
+            app.close();
+        }
+    }
+
+    private void run(HttpClient client, URI echo, byte[] body, boolean chunked) throws Exception {
+        // Warm-up
+        for (int i = 0; i < ROUNDS / 5 + 1; i++) {
+            send(client, echo, body, chunked);
+        }
+
+        long t0 = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            long echoed = send(client, echo, body, chunked);
+            if (echoed != body.length) {
+                throw new IllegalStateException("Echoed " + echoed + " of " + body.length + " bytes");
+            }
+        }
+        double seconds = (System.nanoTime() - t0) / 1e9;
+        double megabytes = 2.0 * body.length * ROUNDS / 1_048_576.0;
+        System.out.printf("%-9s %10d %10.1f %12.2f%n", chunked ? "chunked" : "fixed",
+                body.length, megabytes / seconds, seconds * 1000 / ROUNDS);
+    }
+
+    private long send(HttpClient client, URI echo, byte[] body, boolean chunked) throws Exception {
+        // An InputStream publisher has no known length, so the client sends it chunked
+        HttpRequest.BodyPublisher publisher = chunked
+                ? HttpRequest.BodyPublishers.ofInputStream(() -> new ByteArrayInputStream(body))
+                : HttpRequest.BodyPublishers.ofByteArray(body);
+        HttpResponse<byte[]> res = client.send(HttpRequest.newBuilder(echo)
+                        .header("Content-Type", "application/octet-stream")
+                        .POST(publisher)
+                        .build(),
+                HttpResponse.BodyHandlers.ofByteArray());
+        if (res.statusCode() != 200) {
+            throw new IllegalStateException("HTTP " + res.statusCode());
+        }
+        return res.body().length;
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.lab10.bench;
+
+import com.example.lab10.service.NoteContentStore;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Database size and read/write latency of out-of-row note bodies with and without
+ * chunk compression (app.notes.content.compress), on a real SQLite file migrated by Flyway.
+ *
+ * Run with: ./mvnw test -Pbenchmark -Dtest=NoteCompressionBenchmark [-Dbench.notes=500]
+ */
+@Tag("benchmark")
+@DisplayName("Note Compression Benchmark")
+class NoteCompressionBenchmark {
+
+    private static final int NOTES = Integer.getInteger("bench.notes", 500);
+    private static final int BODY_BYTES = Integer.getInteger("bench.bodyBytes", 256 * 1024);
+
+    private static final String[] WORDS = {
+            "meeting", "project", "deadline", "review", "budget", "design", "release",
+            "customer", "invoice", "sprint", "backlog", "database", "migration", "server"
+    };
+
+    @Test
+    @DisplayName("Compressed vs raw chunks")
+    void compressedVsRaw() throws Exception {
+        byte[] body = text(BODY_BYTES);
+        run("raw", false, body);
+        run("deflate", true, body);
+    }
+
+    private void run(String label, boolean compress, byte[] body) throws Exception {
+        Path dir = Files.createTempDirectory("notes-compression-bench");
+        Path db = dir.resolve("bench.db");
+        String url = "jdbc:sqlite:" + db;
+        Flyway.configure().dataSource(url, "", "").locations("classpath:db/migration").load().migrate();
+
+        SingleConnectionDataSource dataSource = new SingleConnectionDataSource(url, true);
+        try {
+            JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+            NoteContentStore store = new NoteContentStore(jdbc, new DataSourceTransactionManager(dataSource));
+            ReflectionTestUtils.setField(store, "inlineMaxBytes", 4096);
+            ReflectionTestUtils.setField(store, "chunkBytes", 65536);
+            ReflectionTestUtils.setField(store, "maxBytes", 64L * 1024 * 1024);
+            ReflectionTestUtils.setField(store, "compress", compress);
+            ReflectionTestUtils.setField(store, "compressMinBytes", 512);
+
+            jdbc.update("INSERT INTO users(username, email, password) VALUES ('bench', 'bench@bench.local', 'x')");
+            for (int i = 0; i < NOTES; i++) {
+                jdbc.update("INSERT INTO notes(user_id, title, content) VALUES (1, ?, '')", "Note " + i);
+            }
+
+            long[] writes = new long[NOTES];
+            for (int i = 0; i < NOTES; i++) {
+                long t0 = System.nanoTime();
+                store.write(i + 1, new ByteArrayInputStream(body));
+                writes[i] = System.nanoTime() - t0;
+            }
+
+            long[] reads = new long[NOTES];
+            OutputStream sink = OutputStream.nullOutputStream();
+            for (int i = 0; i < NOTES; i++) {
+                long t0 = System.nanoTime();
+                var info = store.info(i + 1).orElseThrow();
+                store.stream(i + 1, info, 0, info.size() - 1, sink);
+                reads[i] = System.nanoTime() - t0;
+            }
+
+            jdbc.execute("VACUUM");
+            System.out.printf("%-8s db=%,d bytes  write p50=%.2f ms p99=%.2f ms  read p50=%.2f ms p99=%.2f ms  %s%n",
+                    label, Files.size(db),
+                    percentile(writes, 0.50), percentile(writes, 0.99),
+                    percentile(reads, 0.50), percentile(reads, 0.99),
+                    store.storageReport());
+        } finally {
+            dataSource.destroy();
+        }
+    }
+
+    private static byte[] text(int bytes) {
+        Random random = new Random(42);
+        StringBuilder sb = new StringBuilder(bytes + 16);
+        while (sb.length() < bytes) {
+            sb.append(WORDS[random.nextInt(WORDS.length)]).append(' ');
+        }
+        return sb.substring(0, bytes).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static double percentile(long[] nanos, double p) {
+        long[] sorted = nanos.clone();
+        Arrays.sort(sorted);
+        return sorted[(int) Math.min(sorted.length - 1, sorted.length * p)] / 1e6;
+    }
+}
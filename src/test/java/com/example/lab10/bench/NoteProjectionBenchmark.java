@@ -0,0 +1,96 @@
+package com.example.lab10.bench;
+
+import com.example.lab10.dto_.NoteFields;
+import com.example.lab10.dto_.NoteView;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Payload size and latency of a full note listing vs. a title-only listing (?fields=id,title).
+ * Uses the same column sets as the JPQL projections in NoteRepository.
+ *
+ * Run with: ./mvnw test -Pbenchmark -Dtest=NoteProjectionBenchmark
+ */
+@Tag("benchmark")
+@DisplayName("Note Projection Benchmark")
+class NoteProjectionBenchmark {
+
+    private static final int NOTES = Integer.getInteger("bench.notes", 2_000);
+    private static final int CONTENT_BYTES = Integer.getInteger("bench.contentBytes", 32 * 1024);
+    private static final int ROUNDS = Integer.getInteger("bench.rounds", 50);
+
+    private final ObjectMapper objectMapper = JsonMapper.builder().build();
+
+    @Test
+    @DisplayName("Full listing vs title-only listing")
+    void fullVsTitleOnly() throws Exception {
+        Path dir = Files.createTempDirectory("notes-projection-bench");
+        String url = "jdbc:sqlite:" + dir.resolve("bench.db");
+        Flyway.configure().dataSource(url, "", "").locations("classpath:db/migration").load().migrate();
+
+        try (Connection conn = DriverManager.getConnection(url)) {
+            conn.setAutoCommit(false);
+            conn.createStatement().execute(
+                    "INSERT INTO users(username, email, password) VALUES ('bench', 'bench@bench.local', 'x')");
+            String body = "lorem ipsum ".repeat(CONTENT_BYTES / 12);
+            try (PreparedStatement ps = conn.prepareStatement(
+                    "INSERT INTO notes(user_id, title, content) VALUES (1, ?, ?)")) {
+                for (int i = 0; i < NOTES; i++) {
+                    ps.setString(1, "Note " + i);
+                    ps.setString(2, body);
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+            }
+            conn.commit();
+            conn.setAutoCommit(true);
+
+            String full = "SELECT n.id, n.title, n.content, n.version FROM notes n WHERE n.user_id = 1 ORDER BY n.id";
+            String titles = "SELECT n.id, n.title, n.version FROM notes n WHERE n.user_id = 1 ORDER BY n.id";
+
+            report("full (id,title,content,version)", conn, full, NoteFields.ALL);
+            report("title-only (id,title)", conn, titles, NoteFields.parse("id,title"));
+        }
+    }
+
+    private void report(String label, Connection conn, String sql, NoteFields fields) throws Exception {
+        long[] nanos = new long[ROUNDS];
+        int bytes = 0;
+        boolean withContent = fields.includes(NoteFields.Field.CONTENT);
+
+        for (int r = 0; r < ROUNDS; r++) {
+            long t0 = System.nanoTime();
+            List<NoteView> views = new ArrayList<>(NOTES);
+            try (PreparedStatement ps = conn.prepareStatement(sql); ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    views.add(withContent
+                            ? new NoteView(rs.getLong(1), rs.getString(2), rs.getString(3), rs.getLong(4), false)
+                            : new NoteView(rs.getLong(1), rs.getString(2), rs.getLong(3)));
+                }
+            }
+            byte[] json = objectMapper.writeValueAsBytes(
+                    views.stream().map(fields::toMap).collect(Collectors.toList()));
+            nanos[r] = System.nanoTime() - t0;
+            bytes = json.length;
+        }
+
+        Arrays.sort(nanos);
+        System.out.printf("%-34s payload=%,d bytes  p50=%.2f ms  p99=%.2f ms%n",
+                label, bytes, nanos[ROUNDS / 2] / 1e6, nanos[(int) (ROUNDS * 0.99)] / 1e6);
+    }
+}
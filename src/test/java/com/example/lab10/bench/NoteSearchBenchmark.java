@@ -0,0 +1,131 @@
+package com.example.lab10.bench;
+
+import com.example.lab10.repo.NoteSearchRepository;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Indexing and query latency benchmark for the notes FTS5 index.
+ * Runs against a real SQLite file migrated by Flyway (same triggers as production).
+ *
+ * Run with: ./mvnw test -Pbenchmark -Dtest=NoteSearchBenchmark [-Dbench.notes=1000000]
+ */
+@Tag("benchmark")
+@DisplayName("Note Search Benchmark")
+class NoteSearchBenchmark {
+
+    private static final int NOTES = Integer.getInteger("bench.notes", 1_000_000);
+    private static final int USERS = Integer.getInteger("bench.users", 1_000);
+    private static final int QUERIES = Integer.getInteger("bench.queries", 2_000);
+
+    private static final String[] WORDS = {
+            "meeting", "project", "deadline", "review", "budget", "design", "release",
+            "customer", "invoice", "sprint", "backlog", "database", "migration", "server",
+            "security", "password", "holiday", "travel", "grocery", "recipe", "workout",
+            "doctor", "birthday", "gift", "idea", "draft", "report", "summary", "agenda",
+            "contract", "lawyer", "insurance", "garden", "repair", "kitchen", "music"
+    };
+
+    @Test
+    @DisplayName("Index 1M notes and measure search latency")
+    void indexAndQuery() throws Exception {
+        Path dir = Files.createTempDirectory("notes-fts-bench");
+        String url = "jdbc:sqlite:" + dir.resolve("bench.db");
+
+        Flyway.configure().dataSource(url, "", "").locations("classpath:db/migration").load().migrate();
+
+        Random random = new Random(42);
+
+        try (Connection conn = DriverManager.getConnection(url)) {
+            try (Statement st = conn.createStatement()) {
+                st.execute("PRAGMA journal_mode=WAL");
+                st.execute("PRAGMA synchronous=NORMAL");
+            }
+
+            conn.setAutoCommit(false);
+            try (PreparedStatement ps = conn.prepareStatement(
+                    "INSERT INTO users(username, email, password) VALUES (?, ?, 'x')")) {
+                for (int u = 0; u < USERS; u++) {
+                    ps.setString(1, "user" + u);
+                    ps.setString(2, "user" + u + "@bench.local");
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+            }
+            conn.commit();
+
+            // Indexing: every insert goes through the notes_fts_ai trigger
+            long start = System.nanoTime();
+            try (PreparedStatement ps = conn.prepareStatement(
+                    "INSERT INTO notes(user_id, title, content) VALUES (?, ?, ?)")) {
+                for (int i = 0; i < NOTES; i++) {
+                    ps.setLong(1, 1 + random.nextInt(USERS));
+                    ps.setString(2, sentence(random, 4));
+                    ps.setString(3, sentence(random, 40));
+                    ps.addBatch();
+                    if (i % 10_000 == 9_999) {
+                        ps.executeBatch();
+                        conn.commit();
+                    }
+                }
+                ps.executeBatch();
+                conn.commit();
+            }
+            long indexNanos = System.nanoTime() - start;
+            System.out.printf("FTS5 indexing: %,d notes in %.1f s (%,.0f notes/s)%n",
+                    NOTES, indexNanos / 1e9, NOTES / (indexNanos / 1e9));
+
+            conn.setAutoCommit(true);
+            String sql = "SELECT n.id, snippet(notes_fts, -1, '**', '**', '…', 12), bm25(notes_fts, 10.0, 1.0) AS score " +
+                    "FROM notes_fts JOIN notes n ON n.id = notes_fts.rowid JOIN users u ON u.id = n.user_id " +
+                    "WHERE notes_fts MATCH ? AND u.username = ? ORDER BY score LIMIT 21 OFFSET 0";
+
+            long[] latencies = new long[QUERIES];
+            try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                for (int q = 0; q < QUERIES; q++) {
+                    String query = WORDS[random.nextInt(WORDS.length)] + " "
+                            + WORDS[random.nextInt(WORDS.length)].substring(0, 3);
+                    ps.setString(1, NoteSearchRepository.toMatchExpression(query));
+                    ps.setString(2, "user" + random.nextInt(USERS));
+
+                    long t0 = System.nanoTime();
+                    try (ResultSet rs = ps.executeQuery()) {
+                        while (rs.next()) {
+                            rs.getString(2);
+                        }
+                    }
+                    latencies[q] = System.nanoTime() - t0;
+                }
+            }
+
+            Arrays.sort(latencies);
+            System.out.printf("FTS5 query latency over %,d queries: p50=%.2f ms p95=%.2f ms p99=%.2f ms max=%.2f ms%n",
+                    QUERIES,
+                    latencies[QUERIES / 2] / 1e6,
+                    latencies[(int) (QUERIES * 0.95)] / 1e6,
+                    latencies[(int) (QUERIES * 0.99)] / 1e6,
+                    latencies[QUERIES - 1] / 1e6);
+        }
+    }
+
+    private static String sentence(Random random, int words) {
+        StringBuilder sb = new StringBuilder();
+        for (int w = 0; w < words; w++) {
+            if (w > 0) sb.append(' ');
+            sb.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.lab10.bench;
+
+import com.example.lab10.dto_.NoteFields;
+import com.example.lab10.dto_.NoteView;
+import com.example.lab10.dto_.TokenResponse;
+import com.example.lab10.dto_.UserSummary;
+import com.example.lab10.service.NoteResponseWriter;
+import com.example.lab10.service.ResponseFormat;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.module.blackbird.BlackbirdModule;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * ns/op and bytes allocated per response for the hot response shapes:
+ * HashMap/Map.of + databind (before) vs. records + databind, with and without the
+ * Blackbird module, vs. the hand-written streaming writer for note lists.
+ * Allocation is measured per thread (com.sun.management.ThreadMXBean), like JMH's gc profiler.
+ *
+ * Run with: ./mvnw test -Pbenchmark -Dtest=ResponseSerializationBenchmark [-Dbench.ops=200000]
+ */
+@Tag("benchmark")
+@DisplayName("Response Serialization Benchmark")
+class ResponseSerializationBenchmark {
+
+    private static final int OPS = Integer.getInteger("bench.ops", 200_000);
+    private static final int NOTES = Integer.getInteger("bench.notes", 50);
+    private static final int USERS = Integer.getInteger("bench.users", 50);
+
+    private final ObjectMapper plain = JsonMapper.builder().build();
+    private final ObjectMapper blackbird = JsonMapper.builder().addModule(new BlackbirdModule()).build();
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    // Keeps results alive so the JIT can't drop the work
+    private long sink;
+
+    @Test
+    @DisplayName("Maps vs records vs streaming writer")
+    void serialization() {
+        List<NoteView> notes = new ArrayList<>();
+        for (int i = 0; i < NOTES; i++) {
+            notes.add(new NoteView((long) i, "Note " + i, "Meeting notes for sprint " + i + ", review the backlog.", i, false));
+        }
+        NoteFields fields = NoteFields.ALL;
+        NoteResponseWriter writer = new NoteResponseWriter(plain);
+
+        List<Map<String, Object>> userMaps = new ArrayList<>();
+        List<UserSummary> userRecords = new ArrayList<>();
+        for (int i = 0; i < USERS; i++) {
+            Map<String, Object> m = new HashMap<>();
+            m.put("id", (long) i);
+            m.put("username", "user" + i);
+            m.put("email", "user" + i + "@example.com");
+            m.put("role", "ROLE_USER");
+            userMaps.add(m);
+            userRecords.add(new UserSummary((long) i, "user" + i, "user" + i + "@example.com", "ROLE_USER"));
+        }
+
+        String token = "eyJhbGciOiJIUzI1NiJ9." + "x".repeat(180) + ".signature";
+
+        System.out.printf("%-40s %10s %12s%n", "variant", "ns/op", "bytes/op");
+
+        measure("notes: maps + databind", () ->
+                plain.writeValueAsBytes(notes.stream().map(fields::toMap).toList()));
+        measure("notes: maps + databind (blackbird)", () ->
+                blackbird.writeValueAsBytes(notes.stream().map(fields::toMap).toList()));
+        measure("notes: streaming writer", () -> writer.writeList(notes, fields, ResponseFormat.JSON));
+
+        measure("users: maps + databind", () -> plain.writeValueAsBytes(userMaps));
+        measure("users: records + databind", () -> plain.writeValueAsBytes(userRecords));
+        measure("users: records + databind (blackbird)", () -> blackbird.writeValueAsBytes(userRecords));
+
+        measure("token: Map.of + databind", () -> plain.writeValueAsBytes(Map.of(
+                "accessToken", token, "refreshToken", token, "tokenType", "Bearer", "expiresIn", 3600L)));
+        measure("token: record + databind", () ->
+                plain.writeValueAsBytes(new TokenResponse(token, token, 3600)));
+        measure("token: record + databind (blackbird)", () ->
+                blackbird.writeValueAsBytes(new TokenResponse(token, token, 3600)));
+    }
+
+    private void measure(String label, Supplier<byte[]> op) {
+        // Warm-up: let the JIT compile the path before measuring
+        for (int i = 0; i < OPS / 2; i++) {
+            sink += op.get().length;
+        }
+
+        long thread = Thread.currentThread().threadId();
+        long bytes0 = THREADS.getThreadAllocatedBytes(thread);
+        long t0 = System.nanoTime();
+        for (int i = 0; i < OPS; i++) {
+            sink += op.get().length;
+        }
+        long nanos = System.nanoTime() - t0;
+        long bytes = THREADS.getThreadAllocatedBytes(thread) - bytes0;
+
+        System.out.printf("%-40s %10.0f %12d%n", label, (double) nanos / OPS, bytes / OPS);
+    }
+}
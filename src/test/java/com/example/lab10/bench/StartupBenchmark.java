@@ -0,0 +1,147 @@
+package com.example.lab10.bench;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Time from process start to the first successful GET /notes, for the packaged builds:
+ * default jar, AOT + AppCDS (-Pfast-startup) and native image (-Pnative native:compile).
+ * Each variant starts on a fresh SQLite database; variants that weren't built are skipped.
+ *
+ * Build first: ./mvnw -Pfast-startup package -DskipTests [&& ./mvnw -Pnative native:compile -DskipTests]
+ * Run with: ./mvnw test -Pbenchmark -Dtest=StartupBenchmark [-Dbench.runs=5]
+ */
+@Tag("benchmark")
+@DisplayName("Startup Benchmark")
+class StartupBenchmark {
+
+    private static final int RUNS = Integer.getInteger("bench.runs", 5);
+    private static final Duration TIMEOUT = Duration.ofSeconds(120);
+    private static final Pattern ACCESS_TOKEN = Pattern.compile("\"accessToken\"\\s*:\\s*\"([^\"]+)\"");
+
+    private static final Path TARGET = Path.of("target");
+    private static final String JAR = "lab10-0.0.1-SNAPSHOT.jar";
+    private static final String JAVA = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofMillis(200)).build();
+
+    @Test
+    @DisplayName("Default jar vs AOT + CDS vs native image")
+    void timeToFirstNotesRequest() throws Exception {
+        run("default", TARGET.resolve(JAR), List.of(JAVA, "-jar", TARGET.resolve(JAR).toAbsolutePath().toString()));
+
+        Path fast = TARGET.resolve("fast-startup");
+        run("aot+cds", fast.resolve("lab10.jsa"), List.of(JAVA,
+                "-XX:SharedArchiveFile=" + fast.resolve("lab10.jsa").toAbsolutePath(),
+                "-Dspring.aot.enabled=true",
+                "-jar", fast.resolve(JAR).toAbsolutePath().toString()));
+
+        run("native", TARGET.resolve("lab10"), List.of(TARGET.resolve("lab10").toAbsolutePath().toString()));
+    }
+
+    private void run(String label, Path artifact, List<String> command) throws Exception {
+        if (!Files.exists(artifact)) {
+            System.out.printf("%-8s skipped (%s not built)%n", label, artifact);
+            return;
+        }
+
+        long[] millis = new long[RUNS];
+        for (int i = 0; i < RUNS; i++) {
+            millis[i] = startOnce(command);
+        }
+        Arrays.sort(millis);
+        System.out.printf("%-8s first /notes after: median=%d ms  min=%d ms  max=%d ms%n",
+                label, millis[RUNS / 2], millis[0], millis[RUNS - 1]);
+    }
+
+    private long startOnce(List<String> command) throws Exception {
+        Path dir = Files.createTempDirectory("startup-bench");
+        int port = freePort();
+
+        List<String> args = new ArrayList<>(command);
+        args.add("--server.port=" + port);
+        args.add("--spring.datasource.url=jdbc:sqlite:" + dir.resolve("bench.db"));
+        args.add("--spring.jpa.show-sql=false");
+        args.add("--logging.level.root=WARN");
+        // Measures startup alone; warm-up would compete for CPU in the background
+        args.add("--app.warmup.enabled=false");
+
+        long t0 = System.nanoTime();
+        Process process = new ProcessBuilder(args)
+                .directory(dir.toFile())
+                .redirectErrorStream(true)
+                .redirectOutput(dir.resolve("out.log").toFile())
+                .start();
+        try {
+            String base = "http://localhost:" + port;
+            long deadline = t0 + TIMEOUT.toNanos();
+            boolean listening = false;
+            String token = null;
+            while (System.nanoTime() < deadline) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException("App exited, see " + dir.resolve("out.log"));
+                }
+                try {
+                    if (!listening) {
+                        // Probe endpoint: not rate limited, unlike /auth/login
+                        listening = get(base + "/health/live", null) == 200;
+                    } else if (token == null) {
+                        // The admin user exists once DataInitializer has run
+                        token = login(base);
+                    } else if (get(base + "/notes", token) == 200) {
+                        return (System.nanoTime() - t0) / 1_000_000;
+                    }
+                } catch (IOException notUpYet) {
+                    // Connection refused until Tomcat listens
+                }
+                Thread.sleep(listening && token == null ? 20 : 5);
+            }
+            throw new IllegalStateException("No successful /notes within " + TIMEOUT);
+        } finally {
+            process.destroy();
+            process.waitFor();
+        }
+    }
+
+    private String login(String base) throws IOException, InterruptedException {
+        HttpResponse<String> res = client.send(HttpRequest.newBuilder(URI.create(base + "/auth/login"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(
+                                "{\"username\":\"admin\",\"password\":\"Admin123!\"}"))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+        Matcher m = ACCESS_TOKEN.matcher(res.body());
+        return res.statusCode() == 200 && m.find() ? m.group(1) : null;
+    }
+
+    private int get(String url, String token) throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(url));
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        return client.send(request.build(),
+                HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.lab10.bench;
+
+import com.example.lab10.Lab10Application;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLSocket;
+import javax.net.ssl.TrustManagerFactory;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyStore;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Handshake rate (full vs. resumed) and request rate (HTTP/1.1 vs. HTTP/2) of the
+ * https profile, per TLS engine, against a locally generated self-signed certificate.
+ * The OpenSSL variant only runs when tomcat-native is installed.
+ *
+ * Run with: ./mvnw test -Pbenchmark -Dtest=TlsBenchmark [-Dbench.handshakes=2000 -Dbench.requests=20000]
+ */
+@Tag("benchmark")
+@DisplayName("TLS Benchmark")
+class TlsBenchmark {
+
+    private static final int HANDSHAKES = Integer.getInteger("bench.handshakes", 2_000);
+    private static final int REQUESTS = Integer.getInteger("bench.requests", 20_000);
+    private static final int CONCURRENCY = Integer.getInteger("bench.concurrency", 64);
+    private static final String PASSWORD = "changeit";
+
+    @Test
+    @DisplayName("JSSE vs OpenSSL, full vs resumed handshakes, HTTP/1.1 vs HTTP/2")
+    void tlsVariants() throws Exception {
+        Path dir = Files.createTempDirectory("tls-bench");
+        Path keystore = dir.resolve("keystore.p12");
+        generateCertificate(keystore);
+        SSLContext trusting = trustingContext(keystore);
+
+        run("jsse", keystore, dir, trusting);
+        run("openssl", keystore, dir, trusting);
+    }
+
+    private void run(String engine, Path keystore, Path dir, SSLContext trusting) throws Exception {
+        ConfigurableApplicationContext app;
+        try {
+            app = new SpringApplicationBuilder(Lab10Application.class)
+                    .profiles("https")
+                    .properties(
+                            "server.port=0",
+                            "server.ssl.key-store=file:" + keystore,
+                            "spring.datasource.url=jdbc:sqlite:" + dir.resolve(engine + ".db"),
+                            "spring.jpa.show-sql=false",
+                            "logging.level.root=WARN",
+                            "app.tls.engine=" + engine)
+                    .run();
+        } catch (Exception e) {
+            System.out.printf("%-8s skipped (%s)%n", engine, e.getMessage());
+            return;
+        }
+
+        try {
+            int port = Integer.parseInt(app.getEnvironment().getProperty("local.server.port"));
+
+            double full = handshakesPerSecond(port, trusting, false);
+            double resumed = handshakesPerSecond(port, trusting, true);
+            double http1 = requestsPerSecond(port, trusting, HttpClient.Version.HTTP_1_1);
+            double http2 = requestsPerSecond(port, trusting, HttpClient.Version.HTTP_2);
+
+            System.out.printf("%-8s handshakes/s full=%.0f resumed=%.0f  requests/s http1.1=%.0f http2=%.0f%n",
+                    engine, full, resumed, http1, http2);
+        } finally {
+            app.close();
+        }
+    }
+
+    // New TCP connection + handshake each time; a shared client context lets the server resume
+    private double handshakesPerSecond(int port, SSLContext trusting, boolean resume) throws Exception {
+        long t0 = System.nanoTime();
+        for (int i = 0; i < HANDSHAKES; i++) {
+            SSLContext context = resume ? trusting : trustingContext(null);
+            try (SSLSocket socket = (SSLSocket) context.getSocketFactory().createSocket("localhost", port)) {
+                socket.startHandshake();
+            }
+        }
+        return HANDSHAKES / ((System.nanoTime() - t0) / 1e9);
+    }
+
+    private double requestsPerSecond(int port, SSLContext trusting, HttpClient.Version version) throws Exception {
+        HttpClient client = HttpClient.newBuilder().sslContext(trusting).version(version).build();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("https://localhost:" + port + "/hello")).build();
+
+        long t0 = System.nanoTime();
+        for (int sent = 0; sent < REQUESTS; sent += CONCURRENCY) {
+            List<CompletableFuture<HttpResponse<Void>>> batch = new ArrayList<>();
+            for (int i = 0; i < CONCURRENCY; i++) {
+                batch.add(client.sendAsync(request, HttpResponse.BodyHandlers.discarding()));
+            }
+            CompletableFuture.allOf(batch.toArray(new CompletableFuture[0])).join();
+        }
+        return REQUESTS / ((System.nanoTime() - t0) / 1e9);
+    }
+
+    private static void generateCertificate(Path keystore) throws Exception {
+        Process keytool = new ProcessBuilder(
+                Path.of(System.getProperty("java.home"), "bin", "keytool").toString(),
+                "-genkeypair", "-alias", "lab10", "-keyalg", "EC", "-groupname", "secp256r1",
+                "-dname", "CN=localhost", "-ext", "SAN=dns:localhost,ip:127.0.0.1",
+                "-validity", "2", "-storetype", "PKCS12",
+                "-keystore", keystore.toString(), "-storepass", PASSWORD)
+                .inheritIO()
+                .start();
+        if (keytool.waitFor() != 0) {
+            throw new IllegalStateException("keytool failed");
+        }
+    }
+
+    private static KeyStore trustStore;
+
+    // A fresh context has an empty client session cache, so every handshake is a full one
+    private static SSLContext trustingContext(Path keystore) throws Exception {
+        if (keystore != null) {
+            trustStore = KeyStore.getInstance("PKCS12");
+            try (InputStream in = Files.newInputStream(keystore)) {
+                trustStore.load(in, PASSWORD.toCharArray());
+            }
+        }
+        TrustManagerFactory tmf = TrustManagerFactory.getInstance(TrustManagerFactory.getDefaultAlgorithm());
+        tmf.init(trustStore);
+        SSLContext context = SSLContext.getInstance("TLS");
+        context.init(null, tmf.getTrustManagers(), null);
+        return context;
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.lab10.bench;
+
+import com.example.lab10.Lab10Application;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Throughput and p99 of the running app on platform threads vs. virtual threads
+ * (spring.threads.virtual.enabled), under many concurrent clients doing uncached,
+ * SQLite-bound reads (full-text search).
+ *
+ * Run with: ./mvnw test -Pbenchmark -Dtest=VirtualThreadLoadBenchmark [-Dbench.clients=400 -Dbench.seconds=20]
+ */
+@Tag("benchmark")
+@DisplayName("Virtual Thread Load Benchmark")
+class VirtualThreadLoadBenchmark {
+
+    private static final int CLIENTS = Integer.getInteger("bench.clients", 400);
+    private static final int SECONDS = Integer.getInteger("bench.seconds", 20);
+    private static final int NOTES = Integer.getInteger("bench.notes", 2_000);
+
+    private static final String[] WORDS = {
+            "meeting", "project", "deadline", "review", "budget", "design", "release",
+            "customer", "invoice", "sprint", "backlog", "database", "migration", "server"
+    };
+
+    private final ObjectMapper objectMapper = JsonMapper.builder().build();
+
+    @Test
+    @DisplayName("Platform threads vs virtual threads")
+    void platformVsVirtual() throws Exception {
+        run("platform", false);
+        run("virtual", true);
+    }
+
+    private void run(String label, boolean virtual) throws Exception {
+        Path dir = Files.createTempDirectory("vt-load-bench");
+        ConfigurableApplicationContext app = new SpringApplicationBuilder(Lab10Application.class)
+                .properties(
+                        "server.port=0",
+                        "spring.datasource.url=jdbc:sqlite:" + dir.resolve("bench.db"),
+                        "spring.jpa.show-sql=false",
+                        "logging.level.root=WARN",
+                        "spring.threads.virtual.enabled=" + virtual,
+                        "app.diagnostics.pinning.enabled=" + virtual)
+                .run();
+        try {
+            String base = "http://localhost:" + app.getEnvironment().getProperty("local.server.port");
+            HttpClient client = HttpClient.newBuilder()
+                    .executor(Executors.newVirtualThreadPerTaskExecutor())
+                    .build();
+
+            String token = login(client, base);
+            seed(client, base, token);
+
+            LongAdder errors = new LongAdder();
+            ConcurrentLinkedQueue<long[]> samples = new ConcurrentLinkedQueue<>();
+            long deadline = System.nanoTime() + SECONDS * 1_000_000_000L;
+
+            try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (int c = 0; c < CLIENTS; c++) {
+                    int seed = c;
+                    clients.submit(() -> {
+                        Random random = new Random(seed);
+                        long[] latencies = new long[1 << 16];
+                        int n = 0;
+                        while (System.nanoTime() < deadline && n < latencies.length) {
+                            HttpRequest request = HttpRequest.newBuilder(URI.create(
+                                            base + "/notes/search?q=" + WORDS[random.nextInt(WORDS.length)]))
+                                    .header("Authorization", "Bearer " + token)
+                                    .build();
+                            long t0 = System.nanoTime();
+                            try {
+                                HttpResponse<Void> res = client.send(request, HttpResponse.BodyHandlers.discarding());
+                                if (res.statusCode() != 200) {
+                                    errors.increment();
+                                }
+                            } catch (Exception e) {
+                                errors.increment();
+                            }
+                            latencies[n++] = System.nanoTime() - t0;
+                        }
+                        samples.add(Arrays.copyOf(latencies, n));
+                        return null;
+                    });
+                }
+            }
+
+            long[] all = samples.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+            System.out.printf("%-9s clients=%d  throughput=%.0f req/s  p50=%.2f ms  p99=%.2f ms  errors=%d%n",
+                    label, CLIENTS, all.length / (double) SECONDS,
+                    all[all.length / 2] / 1e6, all[(int) (all.length * 0.99)] / 1e6, errors.sum());
+        } finally {
+            app.close();
+        }
+    }
+
+    private String login(HttpClient client, String base) throws Exception {
+        HttpResponse<String> res = client.send(HttpRequest.newBuilder(URI.create(base + "/auth/login"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(
+                                "{\"username\":\"admin\",\"password\":\"Admin123!\"}"))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+        JsonNode body = objectMapper.readTree(res.body());
+        return body.get("accessToken").asString();
+    }
+
+    private void seed(HttpClient client, String base, String token) throws Exception {
+        Random random = new Random(42);
+        for (int done = 0; done < NOTES; done += 100) {
+            List<Map<String, Object>> operations = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                StringBuilder content = new StringBuilder();
+                for (int w = 0; w < 30; w++) {
+                    content.append(WORDS[random.nextInt(WORDS.length)]).append(' ');
+                }
+                operations.add(Map.of("op", "create", "title", "Note " + (done + i),
+                        "content", content.toString().trim()));
+            }
+            client.send(HttpRequest.newBuilder(URI.create(base + "/notes/batch"))
+                            .header("Authorization", "Bearer " + token)
+                            .header("Content-Type", "application/json")
+                            .POST(HttpRequest.BodyPublishers.ofString(
+                                    objectMapper.writeValueAsString(Map.of("operations", operations))))
+                            .build(),
+                    HttpResponse.BodyHandlers.discarding());
+        }
+    }
+}
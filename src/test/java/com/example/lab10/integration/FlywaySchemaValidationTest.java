@@ -0,0 +1,55 @@
+package com.example.lab10.integration;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.MigrationInfo;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The production schema comes from Flyway and Hibernate never touches it (ddl-auto=none, also
+ * in the fast-startup build). This runs the migrations against a fresh SQLite database and
+ * starts the context with ddl-auto=validate, so an entity that drifts from the migrations
+ * fails here instead of at the first query in production.
+ */
+@SpringBootTest
+@DisplayName("Flyway Schema Validation Tests")
+class FlywaySchemaValidationTest {
+
+    @DynamicPropertySource
+    static void sqlite(DynamicPropertyRegistry registry) throws IOException {
+        Path db = Files.createTempDirectory("schema-validation").resolve("lab10.db");
+        registry.add("spring.datasource.url", () -> "jdbc:sqlite:" + db);
+        registry.add("spring.datasource.driver-class-name", () -> "org.sqlite.JDBC");
+        registry.add("spring.jpa.database-platform", () -> "com.example.lab10.config.SQLiteAffinityDialect");
+        registry.add("spring.flyway.enabled", () -> "true");
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "validate");
+        registry.add("spring.jpa.properties.hibernate.boot.allow_jdbc_metadata_access", () -> "true");
+        registry.add("spring.jpa.properties.hibernate.hbm2ddl.jdbc_metadata_extraction_strategy",
+                () -> "individually");
+    }
+
+    @Autowired
+    private Flyway flyway;
+
+    @Test
+    @DisplayName("All migrations apply on SQLite and the entities validate against them")
+    void migrationsApply_AndEntitiesValidate() {
+        // The context only starts if Hibernate's validation passed
+        assertEquals(0, flyway.info().pending().length);
+
+        MigrationInfo current = flyway.info().current();
+        assertNotNull(current);
+        MigrationInfo[] all = flyway.info().all();
+        assertEquals(all[all.length - 1].getVersion(), current.getVersion());
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.lab10.integration;
+
+import com.example.lab10.security.HstsFilter;
+import com.example.lab10.security.JwtUtil;
+import com.example.lab10.security.RateLimitFilter;
+import com.example.lab10.security.SecurityHeadersFilter;
+import com.example.lab10.service.TokenService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.servlet.AbstractFilterRegistrationBean;
+import org.springframework.boot.web.servlet.ServletContextInitializer;
+import org.springframework.boot.web.servlet.ServletContextInitializerBeans;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.DefaultMockMvcBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * One authenticated request through the filters the servlet container would register
+ * (the same registration beans, enabled flags and URL patterns), with the https profile so
+ * HstsFilter exists. Each pre-processing stage and the JWT blacklist lookup must run once.
+ */
+@SpringBootTest
+@ActiveProfiles("https")
+@DisplayName("Request Pipeline Integration Tests")
+class RequestPipelineIntegrationTest {
+
+    @Autowired
+    private WebApplicationContext context;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @MockitoSpyBean
+    private TokenService tokenService;
+
+    @MockitoSpyBean
+    private HstsFilter hstsFilter;
+
+    @MockitoSpyBean
+    private SecurityHeadersFilter securityHeadersFilter;
+
+    @MockitoSpyBean
+    private RateLimitFilter rateLimitFilter;
+
+    private MockMvc mvc;
+
+    @BeforeEach
+    void setUp() {
+        DefaultMockMvcBuilder builder = MockMvcBuilders.webAppContextSetup(context);
+        for (ServletContextInitializer initializer : new ServletContextInitializerBeans(context)) {
+            if (initializer instanceof AbstractFilterRegistrationBean<?> registration && registration.isEnabled()) {
+                String[] patterns = registration.getUrlPatterns().toArray(String[]::new);
+                builder.addFilter(registration.getFilter(), patterns.length == 0 ? new String[] {"/*"} : patterns);
+            }
+        }
+        mvc = builder.build();
+    }
+
+    @Test
+    @DisplayName("An authenticated request runs each stage and the blacklist check exactly once")
+    void authenticatedRequest_RunsEachConcernOnce() throws Exception {
+        String token = jwtUtil.generateToken("admin", List.of("ROLE_ADMIN"));
+
+        mvc.perform(get("/api/profile").secure(true).header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("Strict-Transport-Security"))
+                .andExpect(header().string("X-Content-Type-Options", "nosniff"));
+
+        verify(tokenService, times(1)).isTokenBlacklisted(token);
+        verify(hstsFilter, times(1)).apply(any(), any(), any());
+        verify(securityHeadersFilter, times(1)).apply(any(), any(), any());
+        verify(rateLimitFilter, times(1)).apply(any(), any(), any());
+        // Not registered with the container on their own, only run as pipeline stages
+        verify(hstsFilter, never()).doFilter(any(), any(), any());
+        verify(securityHeadersFilter, never()).doFilter(any(), any(), any());
+        verify(rateLimitFilter, never()).doFilter(any(), any(), any());
+    }
+}
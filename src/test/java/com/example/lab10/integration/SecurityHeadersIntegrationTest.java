@@ -83,4 +83,47 @@ class SecurityHeadersIntegrationTest {
 
         verify(chain).doFilter(request, response);
     }
+
+    @Test
+    @DisplayName("Notes responses should be privately cacheable with revalidation")
+    void filter_ShouldAllowPrivateRevalidation_ForNotes() throws Exception {
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        when(request.getRequestURI()).thenReturn("/notes/1");
+        HttpServletResponse response = mock(HttpServletResponse.class);
+        FilterChain chain = mock(FilterChain.class);
+
+        filter.doFilter(request, response, chain);
+
+        verify(response).setHeader("Cache-Control", "private, no-cache");
+        verify(response).setHeader("Vary", "Authorization");
+    }
+
+    @Test
+    @DisplayName("Content-hashed static assets should be cacheable for a year")
+    void filter_ShouldCacheVersionedAssetsLong() throws Exception {
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        when(request.getRequestURI()).thenReturn("/favicon-0123456789abcdef0123456789abcdef.svg");
+        HttpServletResponse response = mock(HttpServletResponse.class);
+        FilterChain chain = mock(FilterChain.class);
+
+        filter.doFilter(request, response, chain);
+
+        verify(response).setHeader("Cache-Control", "public, max-age=31536000, immutable");
+    }
+
+    @Test
+    @DisplayName("Plain static assets should be revalidated, sensitive paths still no-store")
+    void filter_ShouldRevalidatePlainAssets_AndKeepNoStoreForAuth() throws Exception {
+        HttpServletRequest page = mock(HttpServletRequest.class);
+        when(page.getRequestURI()).thenReturn("/index.html");
+        HttpServletResponse pageResponse = mock(HttpServletResponse.class);
+        filter.doFilter(page, pageResponse, mock(FilterChain.class));
+        verify(pageResponse).setHeader("Cache-Control", "public, no-cache");
+
+        HttpServletRequest auth = mock(HttpServletRequest.class);
+        when(auth.getRequestURI()).thenReturn("/auth/login");
+        HttpServletResponse authResponse = mock(HttpServletResponse.class);
+        filter.doFilter(auth, authResponse, mock(FilterChain.class));
+        verify(authResponse).setHeader("Cache-Control", "no-store, no-cache, must-revalidate, max-age=0");
+    }
 }
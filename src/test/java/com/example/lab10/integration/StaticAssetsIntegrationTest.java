@@ -0,0 +1,91 @@
+package com.example.lab10.integration;
+
+import com.example.lab10.security.RequestPipelineFilter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.nio.charset.StandardCharsets;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Static assets through the resource chain: content-hashed URLs are served with a one-year
+ * immutable policy, and the hash linked from index.html matches the current favicon.
+ */
+@SpringBootTest
+@DisplayName("Static Assets Integration Tests")
+class StaticAssetsIntegrationTest {
+
+    private static final Pattern FAVICON_LINK = Pattern.compile("href=\"(/favicon-([0-9a-f]{32})\\.svg)\"");
+
+    @Autowired
+    private WebApplicationContext context;
+
+    @Autowired
+    private RequestPipelineFilter pipeline;
+
+    private MockMvc mvc;
+
+    @BeforeEach
+    void setUp() {
+        mvc = MockMvcBuilders.webAppContextSetup(context)
+                .addFilters(pipeline)
+                .apply(springSecurity())
+                .build();
+    }
+
+    private static Matcher faviconLink() throws Exception {
+        String html = new ClassPathResource("static/index.html").getContentAsString(StandardCharsets.UTF_8);
+        Matcher m = FAVICON_LINK.matcher(html);
+        assertTrue(m.find(), "index.html should link a content-hashed favicon");
+        return m;
+    }
+
+    @Test
+    @DisplayName("index.html should link the favicon under its current content hash")
+    void indexHtml_LinksCurrentFaviconHash() throws Exception {
+        byte[] favicon = new ClassPathResource("static/favicon.svg").getContentAsByteArray();
+
+        assertEquals(DigestUtils.md5DigestAsHex(favicon), faviconLink().group(2),
+                "favicon.svg changed: update the hash in index.html");
+    }
+
+    @Test
+    @DisplayName("The hashed favicon URL should be served with an immutable one-year policy")
+    void hashedFavicon_IsServedImmutable() throws Exception {
+        mvc.perform(get(faviconLink().group(1)))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Cache-Control", "public, max-age=31536000, immutable"));
+    }
+
+    @Test
+    @DisplayName("The hashed favicon URL should be served from the precompressed .gz sibling")
+    void hashedFavicon_IsServedPrecompressed() throws Exception {
+        mvc.perform(get(faviconLink().group(1)).header("Accept-Encoding", "gzip"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andExpect(header().string("Cache-Control", "public, max-age=31536000, immutable"));
+    }
+
+    @Test
+    @DisplayName("The plain favicon URL should still be revalidated")
+    void plainFavicon_IsRevalidated() throws Exception {
+        mvc.perform(get("/favicon.svg"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Cache-Control", "public, no-cache"));
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.lab10.unit;
+
+import com.example.lab10.controller.ApiController;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * POST /api/echo relays the body through a fixed buffer and enforces the size limit.
+ */
+@DisplayName("Echo Streaming Tests")
+class EchoStreamingTest {
+
+    private static final int MAX_BYTES = 64 * 1024;
+
+    private ApiController controller;
+
+    @BeforeEach
+    void setUp() {
+        controller = new ApiController(null);
+        ReflectionTestUtils.setField(controller, "maxEchoBytes", (long) MAX_BYTES);
+    }
+
+    private static byte[] randomBytes(int size) {
+        byte[] data = new byte[size];
+        new Random(size).nextBytes(data);
+        return data;
+    }
+
+    @Test
+    @DisplayName("Fixed-length body is echoed byte for byte with the same length and type")
+    void fixedLength_IsEchoed() throws Exception {
+        byte[] body = randomBytes(50_000);
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/echo");
+        request.setContentType("application/octet-stream");
+        request.setContent(body);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        controller.echoPost(request, response);
+
+        assertEquals(200, response.getStatus());
+        assertEquals("application/octet-stream", response.getContentType());
+        assertEquals(body.length, response.getContentLengthLong());
+        assertArrayEquals(body, response.getContentAsByteArray());
+    }
+
+    @Test
+    @DisplayName("Chunked body (no Content-Length) is echoed")
+    void chunked_IsEchoed() throws Exception {
+        byte[] body = randomBytes(30_000);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        controller.echoPost(chunkedRequest(body), response);
+
+        assertEquals(200, response.getStatus());
+        assertArrayEquals(body, response.getContentAsByteArray());
+    }
+
+    @Test
+    @DisplayName("Declared length over the limit is rejected without reading the body")
+    void declaredTooLarge_Returns413() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/echo");
+        request.setContentType("text/plain");
+        request.setContent(randomBytes(MAX_BYTES + 1));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        controller.echoPost(request, response);
+
+        assertEquals(413, response.getStatus());
+        assertTrue(response.getContentAsString().contains("echo_too_large"));
+    }
+
+    @Test
+    @DisplayName("Chunked body over the limit is rejected while nothing was sent yet")
+    void chunkedTooLarge_Returns413() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        // Large enough buffer that nothing is committed before the limit is hit
+        response.setBufferSize(2 * MAX_BYTES);
+
+        controller.echoPost(chunkedRequest(randomBytes(MAX_BYTES + 10_000)), response);
+
+        assertEquals(413, response.getStatus());
+        assertEquals("application/json", response.getContentType());
+        assertTrue(response.getContentAsString().startsWith("{\"status\":413"));
+    }
+
+    @Test
+    @DisplayName("Chunked body over the limit after the response was committed is truncated without an error")
+    void chunkedTooLargeAfterCommit_IsTruncated() throws Exception {
+        byte[] body = randomBytes(MAX_BYTES + 10_000);
+        AtomicReference<Supplier<Map<String, String>>> trailerFields = new AtomicReference<>();
+        MockHttpServletResponse response = new MockHttpServletResponse() {
+            // The mock does not keep trailers
+            @Override
+            public void setTrailerFields(Supplier<Map<String, String>> supplier) {
+                trailerFields.set(supplier);
+            }
+        };
+        response.setBufferSize(4096);
+
+        controller.echoPost(chunkedRequest(body), response);
+
+        assertTrue(response.isCommitted());
+        assertEquals(200, response.getStatus());
+        byte[] echoed = response.getContentAsByteArray();
+        assertTrue(echoed.length > 0 && echoed.length <= MAX_BYTES);
+        assertArrayEquals(Arrays.copyOf(body, echoed.length), echoed);
+
+        Map<String, String> trailers = trailerFields.get().get();
+        assertEquals("true", trailers.get("Echo-Truncated"));
+        assertEquals(String.valueOf(echoed.length), trailers.get("Echo-Bytes"));
+    }
+
+    // No Content-Length, as with Transfer-Encoding: chunked
+    private static MockHttpServletRequest chunkedRequest(byte[] body) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/echo") {
+            @Override
+            public int getContentLength() {
+                return -1;
+            }
+
+            @Override
+            public long getContentLengthLong() {
+                return -1;
+            }
+        };
+        request.setContentType("text/plain");
+        request.setContent(body);
+        return request;
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.lab10.unit;
+
+import com.example.lab10.service.FlightRecorderService;
+import com.example.lab10.service.JfrEvents;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Flight Recorder Service Tests")
+class FlightRecorderServiceTest {
+
+    private FlightRecorderService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new FlightRecorderService();
+        ReflectionTestUtils.setField(service, "maxDurationSeconds", 60L);
+        ReflectionTestUtils.setField(service, "maxAgeSeconds", 60L);
+        ReflectionTestUtils.setField(service, "maxSizeMb", 8L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReflectionTestUtils.invokeMethod(service, "shutdown");
+    }
+
+    @Test
+    @DisplayName("Requested limits are capped; a second start is refused while running")
+    void start_CapsLimitsAndRefusesSecond() throws Exception {
+        Map<String, Object> started = service.start("default", 3600L, null, 1024L);
+
+        assertEquals("RUNNING", started.get("state"));
+        assertEquals(60L, started.get("durationSeconds"));
+        assertEquals(8L * 1024 * 1024, started.get("maxSizeBytes"));
+        assertNull(service.start("default", null, null, null));
+    }
+
+    @Test
+    @DisplayName("Unknown settings are rejected")
+    void start_RejectsUnknownSettings() {
+        assertThrows(IllegalArgumentException.class, () -> service.start("everything", null, null, null));
+    }
+
+    @Test
+    @DisplayName("The dump contains the application's events with their outcome")
+    void dump_ContainsAppEvents() throws Exception {
+        assertNull(service.dump());
+        service.start("default", null, null, null);
+
+        JfrEvents.JwtVerify event = new JfrEvents.JwtVerify();
+        event.begin();
+        event.outcome = "expired";
+        event.commit();
+
+        assertEquals("STOPPED", service.stop().get("state"));
+        Path file = service.dump();
+        try {
+            List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+            assertTrue(events.stream().anyMatch(e -> e.getEventType().getName().equals("lab10.JwtVerify")
+                    && "expired".equals(e.getString("outcome"))));
+            // Environment variables, system properties and the JVM command line may hold secrets
+            Set<String> sensitive = Set.of("jdk.InitialEnvironmentVariable", "jdk.InitialSystemProperty",
+                    "jdk.JVMInformation");
+            assertTrue(events.stream().noneMatch(e -> sensitive.contains(e.getEventType().getName())));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    @DisplayName("Stop without a recording reports nothing to stop")
+    void stop_WithoutRecording() {
+        assertNull(service.stop());
+        assertEquals("NONE", service.status().get("state"));
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.lab10.unit;
+
+import com.example.lab10.security.HealthProbeFilter;
+import com.example.lab10.service.ReadinessService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@DisplayName("Health Probe Filter Tests")
+class HealthProbeFilterTest {
+
+    private static final byte[] READY_BODY = "{\"status\":\"UP\"}".getBytes(StandardCharsets.UTF_8);
+
+    private ReadinessService readiness;
+    private HealthProbeFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        readiness = mock(ReadinessService.class);
+        when(readiness.body()).thenReturn(READY_BODY);
+        filter = new HealthProbeFilter(readiness);
+        ReflectionTestUtils.setField(filter, "maxInFlight", 2);
+    }
+
+    private static HttpServletRequest request(String method, String path) {
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        when(request.getMethod()).thenReturn(method);
+        when(request.getRequestURI()).thenReturn(path);
+        return request;
+    }
+
+    private static HttpServletResponse response() throws Exception {
+        HttpServletResponse response = mock(HttpServletResponse.class);
+        when(response.getOutputStream()).thenReturn(mock(ServletOutputStream.class));
+        return response;
+    }
+
+    @Test
+    @DisplayName("Liveness is answered without entering the chain")
+    void live_ShortCircuits() throws Exception {
+        HttpServletResponse response = response();
+        FilterChain chain = mock(FilterChain.class);
+
+        filter.doFilter(request("GET", "/health/live"), response, chain);
+
+        verify(response).setStatus(200);
+        verify(response.getOutputStream()).write(any(byte[].class));
+        verifyNoInteractions(chain);
+    }
+
+    @Test
+    @DisplayName("Readiness is 503 while dependencies are not ready")
+    void ready_NotReady_Returns503() throws Exception {
+        when(readiness.isReady()).thenReturn(false);
+        HttpServletResponse response = response();
+
+        filter.doFilter(request("GET", "/health/ready"), response, mock(FilterChain.class));
+
+        verify(response).setStatus(503);
+    }
+
+    @Test
+    @DisplayName("Readiness is 200 when ready; HEAD sends no body")
+    void ready_Ready_Returns200() throws Exception {
+        when(readiness.isReady()).thenReturn(true);
+        HttpServletResponse response = response();
+
+        filter.doFilter(request("HEAD", "/health/ready"), response, mock(FilterChain.class));
+
+        verify(response).setStatus(200);
+        verify(response).setContentLength(READY_BODY.length);
+        verify(response, never()).getOutputStream();
+    }
+
+    @Test
+    @DisplayName("Readiness is 503 while the node is saturated")
+    void ready_Saturated_Returns503() throws Exception {
+        when(readiness.isReady()).thenReturn(true);
+        HttpServletResponse probe = response();
+
+        // Two requests parked inside the chain
+        FilterChain parked = (req, res) -> {
+            if (filter.inFlight() < 2) {
+                filter.doFilter(request("GET", "/notes"), mock(HttpServletResponse.class), (r, s) -> {
+                    assertEquals(2, filter.inFlight());
+                    filter.doFilter(request("GET", "/health/ready"), probe, mock(FilterChain.class));
+                });
+            }
+        };
+        filter.doFilter(request("GET", "/notes"), mock(HttpServletResponse.class), parked);
+
+        verify(probe).setStatus(503);
+        assertEquals(0, filter.inFlight());
+    }
+
+    @Test
+    @DisplayName("Other requests pass through")
+    void otherPaths_PassThrough() throws Exception {
+        HttpServletRequest request = request("GET", "/hello");
+        HttpServletResponse response = mock(HttpServletResponse.class);
+        FilterChain chain = mock(FilterChain.class);
+
+        filter.doFilter(request, response, chain);
+
+        verify(chain).doFilter(request, response);
+        verify(response, never()).setStatus(anyInt());
+    }
+}
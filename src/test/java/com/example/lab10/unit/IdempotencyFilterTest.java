@@ -0,0 +1,203 @@
+package com.example.lab10.unit;
+
+import com.example.lab10.security.IdempotencyFilter;
+import com.example.lab10.security.IdempotencyStore;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for IdempotencyFilter (unauthenticated requests, so keys are scoped per client IP).
+ */
+@DisplayName("IdempotencyFilter Unit Tests")
+class IdempotencyFilterTest {
+
+    private static final String BODY = "{\"title\":\"Groceries\",\"content\":\"milk\"}";
+
+    private final AtomicInteger handled = new AtomicInteger();
+    private IdempotencyFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        filter = new IdempotencyFilter(new IdempotencyStore(3600, 100));
+        ReflectionTestUtils.setField(filter, "paths", Set.of("/notes"));
+        ReflectionTestUtils.setField(filter, "waitTimeoutMillis", 100L);
+        ReflectionTestUtils.setField(filter, "maxBodyBytes", 1024);
+    }
+
+    private static MockHttpServletRequest post(String key, String body) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/notes");
+        request.addHeader(IdempotencyFilter.HEADER, key);
+        request.setContentType("application/json");
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+
+    /**
+     * Handler that echoes the body it read and answers with the given status.
+     */
+    private FilterChain handler(int status) {
+        return (req, res) -> {
+            handled.incrementAndGet();
+            HttpServletResponse response = (HttpServletResponse) res;
+            response.setStatus(status);
+            response.setHeader("Location", "/notes/" + handled.get());
+            response.setContentType("application/json");
+            response.getOutputStream().write(req.getInputStream().readAllBytes());
+        };
+    }
+
+    private MockHttpServletResponse send(MockHttpServletRequest request, FilterChain chain) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+
+    @Test
+    @DisplayName("A retry should get the stored response and headers without running the handler")
+    void retry_ShouldReplayStoredResponse() throws Exception {
+        MockHttpServletResponse first = send(post("k1", BODY), handler(201));
+        MockHttpServletResponse retry = send(post("k1", BODY), handler(201));
+
+        assertEquals(1, handled.get());
+        assertEquals(201, first.getStatus());
+        assertNull(first.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+
+        assertEquals(201, retry.getStatus());
+        assertEquals("true", retry.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+        assertEquals("/notes/1", retry.getHeader("Location"));
+        assertEquals("application/json", retry.getContentType());
+        assertEquals(BODY, retry.getContentAsString());
+    }
+
+    @Test
+    @DisplayName("Reusing a key with a different body should be rejected with 422")
+    void differentBody_ShouldBeRejected() throws Exception {
+        send(post("k1", BODY), handler(201));
+        MockHttpServletResponse reused = send(post("k1", "{\"title\":\"Other\"}"), handler(201));
+
+        assertEquals(422, reused.getStatus());
+        assertTrue(reused.getContentAsString().contains("idempotency_key_reused"));
+        assertEquals(1, handled.get());
+    }
+
+    @Test
+    @DisplayName("5xx responses should not be stored, so the retry runs again")
+    void serverError_ShouldNotBeStored() throws Exception {
+        MockHttpServletResponse failed = send(post("k1", BODY), handler(503));
+        MockHttpServletResponse retry = send(post("k1", BODY), handler(201));
+
+        assertEquals(503, failed.getStatus());
+        assertEquals(201, retry.getStatus());
+        assertNull(retry.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+        assertEquals(2, handled.get());
+    }
+
+    @Test
+    @DisplayName("A duplicate waiting longer than the timeout should get 409 with Retry-After")
+    void duplicateWaitTimeout_ShouldReturnConflict() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        FilterChain slow = (req, res) -> {
+            started.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            handler(201).doFilter(req, res);
+        };
+
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        try {
+            Future<MockHttpServletResponse> first = pool.submit(() -> send(post("k1", BODY), slow));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            MockHttpServletResponse duplicate = send(post("k1", BODY), handler(201));
+            assertEquals(409, duplicate.getStatus());
+            assertEquals("1", duplicate.getHeader("Retry-After"));
+
+            release.countDown();
+            assertEquals(201, first.get(5, TimeUnit.SECONDS).getStatus());
+            assertEquals(1, handled.get());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("X-Forwarded-For should not pick the scope of an anonymous key")
+    void forwardedFor_ShouldNotChangeScope() throws Exception {
+        MockHttpServletRequest first = post("k1", BODY);
+        first.addHeader("X-Forwarded-For", "203.0.113.7");
+        MockHttpServletRequest spoofed = post("k1", BODY);
+        spoofed.addHeader("X-Forwarded-For", "198.51.100.9");
+
+        send(first, handler(201));
+        MockHttpServletResponse retry = send(spoofed, handler(201));
+
+        assertEquals("true", retry.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+        assertEquals(1, handled.get());
+    }
+
+    @Test
+    @DisplayName("Bodies over the limit should be rejected with 413")
+    void oversizedBody_ShouldBeRejected() throws Exception {
+        MockHttpServletResponse response = send(post("k1", "x".repeat(1025)), handler(201));
+
+        assertEquals(413, response.getStatus());
+        assertEquals(0, handled.get());
+    }
+
+    @Test
+    @DisplayName("Non-blocking reads of the cached body should see all of it")
+    void readListener_ShouldReceiveCachedBody() throws Exception {
+        ByteArrayOutputStream read = new ByteArrayOutputStream();
+        AtomicInteger allDataRead = new AtomicInteger();
+
+        send(post("k1", BODY), (req, res) -> {
+            ServletInputStream in = req.getInputStream();
+            in.setReadListener(new ReadListener() {
+                @Override
+                public void onDataAvailable() throws IOException {
+                    while (in.isReady() && !in.isFinished()) {
+                        read.write(in.read());
+                    }
+                }
+
+                @Override
+                public void onAllDataRead() {
+                    allDataRead.incrementAndGet();
+                }
+
+                @Override
+                public void onError(Throwable t) {
+                    fail(t);
+                }
+            });
+        });
+
+        assertEquals(BODY, read.toString(StandardCharsets.UTF_8));
+        assertEquals(1, allDataRead.get());
+    }
+}
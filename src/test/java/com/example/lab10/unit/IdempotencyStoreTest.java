@@ -0,0 +1,84 @@
+package com.example.lab10.unit;
+
+import com.example.lab10.security.IdempotencyStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for IdempotencyStore.
+ */
+@DisplayName("IdempotencyStore Unit Tests")
+class IdempotencyStoreTest {
+
+    private IdempotencyStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new IdempotencyStore(3600, 100);
+    }
+
+    private static IdempotencyStore.StoredResponse created() {
+        return new IdempotencyStore.StoredResponse(200, Map.of("Content-Type", List.of("application/json")),
+                "{\"ok\":true,\"id\":1}".getBytes());
+    }
+
+    @Test
+    @DisplayName("First request should own the key, the retry should get the stored response")
+    void retry_ShouldReplayStoredResponse() {
+        var first = store.reserve("alice POST /notes k1", "fp");
+        assertTrue(first.owner());
+        store.complete(first.entry(), created());
+
+        var retry = store.reserve("alice POST /notes k1", "fp");
+        assertFalse(retry.owner());
+        assertEquals(200, store.await(retry.entry(), 100).status());
+    }
+
+    @Test
+    @DisplayName("Concurrent duplicate should wait for the in-flight request")
+    void concurrentDuplicate_ShouldWaitForOwner() throws Exception {
+        var first = store.reserve("k", "fp");
+        var duplicate = store.reserve("k", "fp");
+
+        var waiting = CompletableFuture.supplyAsync(() -> store.await(duplicate.entry(), 5_000));
+        store.complete(first.entry(), created());
+
+        assertEquals(200, waiting.get(5, TimeUnit.SECONDS).status());
+    }
+
+    @Test
+    @DisplayName("Abandoned request should release waiters and let the retry run again")
+    void abandon_ShouldAllowRetry() {
+        var first = store.reserve("k", "fp");
+        var duplicate = store.reserve("k", "fp");
+        store.abandon("k", first.entry());
+
+        assertNull(store.await(duplicate.entry(), 100));
+        assertTrue(store.reserve("k", "fp").owner());
+    }
+
+    @Test
+    @DisplayName("Unfinished request should time out for waiters")
+    void unfinished_ShouldTimeOut() {
+        store.reserve("k", "fp");
+        var duplicate = store.reserve("k", "fp");
+
+        assertNull(store.await(duplicate.entry(), 10));
+    }
+
+    @Test
+    @DisplayName("Keys should be independent")
+    void differentKeys_ShouldBeIndependent() {
+        assertTrue(store.reserve("alice POST /notes k1", "fp").owner());
+        assertTrue(store.reserve("bob POST /notes k1", "fp").owner());
+        assertEquals(2, store.size());
+    }
+}
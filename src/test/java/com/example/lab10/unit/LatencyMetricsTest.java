@@ -0,0 +1,93 @@
+package com.example.lab10.unit;
+
+import com.example.lab10.security.RequestPipelineFilter;
+import com.example.lab10.security.RequestStage;
+import com.example.lab10.service.LatencyMetrics;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Latency Metrics Tests")
+class LatencyMetricsTest {
+
+    @Test
+    @DisplayName("Summaries carry quantiles, sum, count and max in seconds")
+    void prometheus_WritesSummary() {
+        LatencyMetrics metrics = new LatencyMetrics();
+        for (int i = 1; i <= 100; i++) {
+            metrics.recordRequest("GET", "/notes/{id}", 200, i * 1_000_000L);
+        }
+
+        String text = metrics.prometheus();
+
+        assertTrue(text.contains("# TYPE lab10_http_server_requests_seconds summary"));
+        String labels = "{method=\"GET\",route=\"/notes/{id}\",status=\"200\"";
+        assertTrue(text.contains("lab10_http_server_requests_seconds_count" + labels + "} 100\n"));
+        assertTrue(text.contains("lab10_http_server_requests_seconds_sum" + labels + "} 5.05\n"));
+        double p99 = valueOf(text, "lab10_http_server_requests_seconds" + labels + ",quantile=\"0.99\"}");
+        assertEquals(0.099, p99, 0.001);
+        double max = valueOf(text, "lab10_http_server_requests_seconds_max" + labels + "}");
+        assertEquals(0.1, max, 0.001);
+    }
+
+    @Test
+    @DisplayName("Every stage is exported, and later scrapes include earlier samples")
+    void stages_AreCumulative() {
+        LatencyMetrics metrics = new LatencyMetrics();
+        metrics.recordStage(LatencyMetrics.Stage.PASSWORD_CHECK, 80_000_000L);
+        metrics.prometheus();
+        metrics.recordStage(LatencyMetrics.Stage.PASSWORD_CHECK, 90_000_000L);
+
+        String text = metrics.prometheus();
+
+        assertTrue(text.contains("lab10_stage_seconds_count{stage=\"password_check\"} 2\n"));
+        assertTrue(text.contains("lab10_stage_seconds_count{stage=\"rate_limit\"} 0\n"));
+        assertTrue(text.contains("lab10_stage_seconds_count{stage=\"jwt_verify\"} 0\n"));
+    }
+
+    @Test
+    @DisplayName("Repository calls are labelled by repository and method")
+    void repositories_AreLabelled() {
+        LatencyMetrics metrics = new LatencyMetrics();
+        metrics.recordRepository("NoteRepository", "findById", 250_000L);
+
+        assertTrue(metrics.prometheus().contains(
+                "lab10_repository_seconds_count{repository=\"NoteRepository\",method=\"findById\"} 1\n"));
+    }
+
+    @Test
+    @DisplayName("The pipeline records the handler pattern, or the route class when no handler matched")
+    void pipeline_RecordsRouteAndStatus() throws Exception {
+        LatencyMetrics metrics = new LatencyMetrics();
+        RequestStage reject = (req, res, route) -> {
+            res.setStatus(429);
+            return false;
+        };
+
+        MockHttpServletRequest matched = new MockHttpServletRequest("GET", "/notes/42");
+        matched.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/notes/{id}");
+        new RequestPipelineFilter(List.of(), metrics)
+                .doFilter(matched, new MockHttpServletResponse(), new MockFilterChain());
+        new RequestPipelineFilter(List.of(reject), metrics)
+                .doFilter(new MockHttpServletRequest("POST", "/auth/login"), new MockHttpServletResponse(), new MockFilterChain());
+
+        String text = metrics.prometheus();
+        assertTrue(text.contains("_count{method=\"GET\",route=\"/notes/{id}\",status=\"200\"} 1\n"));
+        assertTrue(text.contains("_count{method=\"POST\",route=\"AUTH\",status=\"429\"} 1\n"));
+        assertFalse(text.contains("/notes/42"));
+    }
+
+    private static double valueOf(String text, String series) {
+        int at = text.indexOf(series);
+        assertTrue(at >= 0, "missing " + series);
+        int start = at + series.length() + 1;
+        return Double.parseDouble(text.substring(start, text.indexOf('\n', start)));
+    }
+}
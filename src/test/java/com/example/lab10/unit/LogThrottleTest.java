@@ -0,0 +1,50 @@
+package com.example.lab10.unit;
+
+import com.example.lab10.service.LogCounters;
+import com.example.lab10.service.LogThrottle;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Log Throttle Tests")
+class LogThrottleTest {
+
+    @Test
+    @DisplayName("Allows the first events of a window, suppresses the rest")
+    void suppressesAfterLimit() {
+        LogThrottle throttle = new LogThrottle("test.limit", 3, Duration.ofHours(1));
+
+        assertEquals(0, throttle.tryAcquire());
+        assertEquals(0, throttle.tryAcquire());
+        assertEquals(0, throttle.tryAcquire());
+        assertEquals(-1, throttle.tryAcquire());
+        assertEquals(-1, throttle.tryAcquire());
+        assertEquals(2, LogCounters.suppressed("test.limit").sum());
+    }
+
+    @Test
+    @DisplayName("The first event of a new window reports how many were suppressed")
+    void reportsSuppressedInNextWindow() throws Exception {
+        LogThrottle throttle = new LogThrottle("test.window", 1, Duration.ofMillis(50));
+
+        assertEquals(0, throttle.tryAcquire());
+        assertEquals(-1, throttle.tryAcquire());
+        assertEquals(-1, throttle.tryAcquire());
+        Thread.sleep(80);
+
+        assertEquals(2, throttle.tryAcquire());
+        assertEquals(-1, throttle.tryAcquire());
+    }
+
+    @Test
+    @DisplayName("Suppressed counts are exported as a Prometheus counter")
+    void exportsSuppressedCounter() {
+        LogThrottle throttle = new LogThrottle("test.export", 0, Duration.ofHours(1));
+        throttle.tryAcquire();
+
+        assertTrue(LogCounters.prometheus().contains("lab10_log_events_suppressed_total{site=\"test.export\"} 1\n"));
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.lab10.unit;
+
+import com.example.lab10.dto_.NoteBatchOperation;
+import com.example.lab10.service.NoteBatchService;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for batch operation validation in NoteBatchService.
+ */
+@DisplayName("Note Batch Validation Unit Tests")
+class NoteBatchValidationTest {
+
+    private NoteBatchService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new NoteBatchService(null, null,
+                Validation.buildDefaultValidatorFactory().getValidator());
+    }
+
+    private NoteBatchOperation op(String op, Long id, String title) {
+        NoteBatchOperation o = new NoteBatchOperation();
+        o.setOp(op);
+        o.setId(id);
+        o.setTitle(title);
+        return o;
+    }
+
+    @Test
+    @DisplayName("Valid mixed batch should have no invalid items")
+    void validBatch_ShouldPass() {
+        var results = service.validate(List.of(
+                op("create", null, "Groceries"),
+                op("update", 1L, "Renamed"),
+                op("delete", 2L, null)));
+
+        assertTrue(results.stream().allMatch(r -> "valid".equals(r.status())));
+    }
+
+    @Test
+    @DisplayName("Update without id should be invalid")
+    void updateWithoutId_ShouldBeInvalid() {
+        var results = service.validate(List.of(op("update", null, "Title")));
+
+        assertEquals("invalid", results.get(0).status());
+    }
+
+    @Test
+    @DisplayName("Create with too short title should be invalid")
+    void createWithShortTitle_ShouldBeInvalid() {
+        var results = service.validate(List.of(op("create", null, "ab")));
+
+        assertEquals("invalid", results.get(0).status());
+        assertTrue(results.get(0).error().startsWith("title"));
+    }
+
+    @Test
+    @DisplayName("Unknown op should be invalid")
+    void unknownOp_ShouldBeInvalid() {
+        var results = service.validate(List.of(op("upsert", 1L, "Title")));
+
+        assertEquals("invalid", results.get(0).status());
+    }
+
+    @Test
+    @DisplayName("Same id twice in one batch should be invalid")
+    void duplicateId_ShouldBeInvalid() {
+        var results = service.validate(List.of(
+                op("update", 5L, "Title"),
+                op("delete", 5L, null)));
+
+        assertEquals("valid", results.get(0).status());
+        assertEquals("invalid", results.get(1).status());
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.lab10.unit;
+
+import com.example.lab10.service.NoteCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for NoteCache.
+ */
+@DisplayName("NoteCache Unit Tests")
+class NoteCacheTest {
+
+    private NoteCache cache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        cache = new NoteCache(JsonMapper.builder().build(), 1024 * 1024);
+        loads = new AtomicInteger();
+    }
+
+    private Object loadNote() {
+        loads.incrementAndGet();
+        return Map.of("id", 1, "title", "Groceries");
+    }
+
+    @Test
+    @DisplayName("Second read at the same version should be served from cache")
+    void sameVersion_ShouldHitCache() {
+        byte[] first = cache.note("alice", 1, "all", 3, this::loadNote);
+        byte[] second = cache.note("alice", 1, "all", 3, this::loadNote);
+
+        assertEquals(1, loads.get());
+        assertSame(first, second);
+        assertTrue(new String(second, StandardCharsets.UTF_8).contains("Groceries"));
+    }
+
+    @Test
+    @DisplayName("Newer version should reload instead of serving the stale entry")
+    void newerVersion_ShouldReload() {
+        cache.note("alice", 1, "all", 3, this::loadNote);
+        cache.note("alice", 1, "all", 4, this::loadNote);
+
+        assertEquals(2, loads.get());
+        assertEquals(1L, cache.stats().get("staleMissCount"));
+    }
+
+    @Test
+    @DisplayName("Evicting a note should force a reload")
+    void evictNote_ShouldForceReload() {
+        cache.note("alice", 1, "all", 3, this::loadNote);
+        cache.evictNote("alice", 1);
+        cache.note("alice", 1, "all", 3, this::loadNote);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    @DisplayName("Entries should be isolated per user")
+    void entries_ShouldBeIsolatedPerUser() {
+        cache.list("alice", "all", 1, () -> List.of(Map.of("id", 1)));
+        byte[] bob = cache.list("bob", "all", 1, () -> List.of());
+
+        assertEquals("[]", new String(bob, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("Missing note should not be cached")
+    void missingNote_ShouldNotBeCached() {
+        assertNull(cache.note("alice", 9, "all", 1, () -> null));
+        assertEquals(0L, cache.stats().get("entries"));
+    }
+
+    @Test
+    @DisplayName("Variants of the same version should be cached independently")
+    void variants_ShouldBeCachedIndependently() {
+        cache.note("alice", 1, "all", 3, this::loadNote);
+        cache.note("alice", 1, "id.title", 3, this::loadNote);
+        cache.note("alice", 1, "all", 3, this::loadNote);
+        cache.note("alice", 1, "id.title", 3, this::loadNote);
+
+        assertEquals(2, loads.get());
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.lab10.unit;
+
+import com.example.lab10.service.NoteContentStore;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the chunk codec of NoteContentStore.
+ */
+@DisplayName("Note Content Codec Unit Tests")
+class NoteContentCodecTest {
+
+    @Test
+    @DisplayName("Compressible chunk should round-trip through deflate")
+    void compressibleChunk_ShouldRoundTrip() {
+        byte[] raw = "lorem ipsum ".repeat(5_000).getBytes(StandardCharsets.UTF_8);
+
+        byte[] packed = NoteContentStore.deflate(raw);
+
+        assertNotNull(packed);
+        assertTrue(packed.length < raw.length);
+        assertArrayEquals(raw, NoteContentStore.decode(NoteContentStore.CODEC_DEFLATE, packed, raw.length));
+    }
+
+    @Test
+    @DisplayName("Incompressible chunk should be stored raw")
+    void incompressibleChunk_ShouldNotBeDeflated() {
+        byte[] raw = new byte[4096];
+        new Random(42).nextBytes(raw);
+
+        assertNull(NoteContentStore.deflate(raw));
+        assertSame(raw, NoteContentStore.decode(NoteContentStore.CODEC_RAW, raw, raw.length));
+    }
+
+    @Test
+    @DisplayName("Stored chunk should be read back as-is")
+    void storedChunk_ShouldDecodeAsRaw() {
+        byte[] raw = "short".getBytes(StandardCharsets.UTF_8);
+
+        assertSame(raw, NoteContentStore.decode(NoteContentStore.CODEC_STORED, raw, raw.length));
+    }
+
+    @Test
+    @DisplayName("Unknown codec should be rejected")
+    void unknownCodec_ShouldThrow() {
+        assertThrows(IllegalStateException.class, () -> NoteContentStore.decode(7, new byte[0], 0));
+    }
+}
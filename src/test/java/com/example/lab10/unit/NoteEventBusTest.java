@@ -0,0 +1,267 @@
+package com.example.lab10.unit;
+
+import com.example.lab10.service.NoteEventBus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for NoteEventBus.
+ */
+@DisplayName("NoteEventBus Unit Tests")
+class NoteEventBusTest {
+
+    private static final Pattern EVENT_ID = Pattern.compile("id:(\\d+)\\nevent:(\\w+)");
+
+    private NoteEventBus bus;
+    // Emitters created by the bus, in subscribe order
+    private final List<RecordingEmitter> emitters = new CopyOnWriteArrayList<>();
+    private volatile boolean failSends;
+
+    /**
+     * Records sent events as "&lt;id&gt; &lt;type&gt; &lt;noteId&gt;" (heartbeats are skipped).
+     */
+    private class RecordingEmitter extends SseEmitter {
+        final List<String> events = new CopyOnWriteArrayList<>();
+
+        RecordingEmitter(long timeout) {
+            super(timeout);
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (failSends) {
+                throw new IOException("client gone");
+            }
+            StringBuilder text = new StringBuilder();
+            Object data = null;
+            for (ResponseBodyEmitter.DataWithMediaType part : builder.build()) {
+                if (part.getData() instanceof String str) {
+                    text.append(str);
+                } else {
+                    data = part.getData();
+                }
+            }
+            Matcher m = EVENT_ID.matcher(text);
+            if (m.find() && data instanceof Map<?, ?> map) {
+                events.add(m.group(1) + " " + m.group(2) + " " + map.get("noteId"));
+            }
+        }
+    }
+
+    private static List<String> awaitEvents(RecordingEmitter emitter, int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (emitter.events.size() < count && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        // Give a wrongly queued extra event the chance to show up
+        Thread.sleep(50);
+        return new ArrayList<>(emitter.events);
+    }
+
+    @BeforeEach
+    void setUp() {
+        bus = new NoteEventBus() {
+            @Override
+            protected SseEmitter newEmitter(long timeoutMillis) {
+                RecordingEmitter emitter = new RecordingEmitter(timeoutMillis);
+                emitters.add(emitter);
+                return emitter;
+            }
+        };
+        ReflectionTestUtils.setField(bus, "logSize", 3);
+        ReflectionTestUtils.setField(bus, "maxLoggedUsers", 2);
+        ReflectionTestUtils.setField(bus, "maxQueued", 8);
+        ReflectionTestUtils.setField(bus, "maxConnectionsPerUser", 2);
+        ReflectionTestUtils.setField(bus, "timeoutMillis", 60_000L);
+    }
+
+    @Test
+    @DisplayName("Event log should stay bounded")
+    void eventLog_ShouldBeBounded() {
+        for (int i = 1; i <= 10; i++) {
+            bus.publish("alice", NoteEventBus.UPDATED, i);
+        }
+
+        assertEquals(3, bus.stats().get("logSize"));
+        assertEquals(10L, bus.stats().get("lastEventId"));
+        assertEquals(10L, bus.stats().get("published"));
+    }
+
+    @Test
+    @DisplayName("Streams per user should be limited")
+    void streamsPerUser_ShouldBeLimited() {
+        assertNotNull(bus.subscribe("alice", null));
+        assertNotNull(bus.subscribe("alice", "0"));
+        assertNull(bus.subscribe("alice", null));
+        assertNotNull(bus.subscribe("bob", null));
+
+        assertEquals(3, bus.stats().get("connections"));
+    }
+
+    @Test
+    @DisplayName("Resume with an unknown or evicted id should still open a stream")
+    void resumeAfterGap_ShouldOpenStream() {
+        for (int i = 1; i <= 10; i++) {
+            bus.publish("alice", NoteEventBus.CREATED, i);
+        }
+
+        assertNotNull(bus.subscribe("alice", "2"));
+        assertNotNull(bus.subscribe("alice", "not-a-number"));
+    }
+
+    @Test
+    @DisplayName("Live events should reach only the owner's streams, in publish order")
+    void liveEvents_ShouldBeDeliveredInOrder() throws Exception {
+        bus.subscribe("alice", null);
+        bus.subscribe("bob", null);
+
+        bus.publish("alice", NoteEventBus.CREATED, 7);
+        bus.publish("bob", NoteEventBus.CREATED, 8);
+        bus.publish("alice", NoteEventBus.UPDATED, 7);
+        bus.publish("alice", NoteEventBus.DELETED, 7);
+
+        assertEquals(List.of("1 created 7", "3 updated 7", "4 deleted 7"), awaitEvents(emitters.get(0), 3));
+        assertEquals(List.of("2 created 8"), awaitEvents(emitters.get(1), 1));
+    }
+
+    @Test
+    @DisplayName("Resume should replay missed events in order, then continue live")
+    void resume_ShouldReplayThenContinueLive() throws Exception {
+        bus.publish("alice", NoteEventBus.CREATED, 1);
+        bus.publish("alice", NoteEventBus.CREATED, 2);
+        bus.publish("bob", NoteEventBus.CREATED, 3);
+        bus.publish("alice", NoteEventBus.UPDATED, 1);
+
+        bus.subscribe("alice", "1");
+        bus.publish("alice", NoteEventBus.DELETED, 2);
+
+        assertEquals(List.of("2 created 2", "4 updated 1", "5 deleted 2"), awaitEvents(emitters.get(0), 3));
+    }
+
+    @Test
+    @DisplayName("Another user's events should not evict a user's resume log")
+    void busyUser_ShouldNotEvictOtherUsersLog() throws Exception {
+        bus.publish("alice", NoteEventBus.CREATED, 1);
+        for (int i = 0; i < 10; i++) {
+            bus.publish("bob", NoteEventBus.UPDATED, 2);
+        }
+
+        bus.subscribe("alice", "0");
+
+        assertEquals(List.of("1 created 1"), awaitEvents(emitters.get(0), 1));
+    }
+
+    @Test
+    @DisplayName("Resume from before the user's own log should get a reset")
+    void resumeBeforeOwnLog_ShouldReset() throws Exception {
+        for (int i = 1; i <= 5; i++) {
+            bus.publish("alice", NoteEventBus.UPDATED, i);
+        }
+
+        bus.subscribe("alice", "1");
+
+        List<String> events = awaitEvents(emitters.get(0), 1);
+        assertEquals(1, events.size());
+        assertTrue(events.get(0).contains(NoteEventBus.RESET));
+    }
+
+    @Test
+    @DisplayName("Resume with more missed events than the queue holds should get a reset")
+    void resumeBeyondQueueCapacity_ShouldReset() throws Exception {
+        ReflectionTestUtils.setField(bus, "logSize", 32);
+        for (int i = 1; i <= 20; i++) {
+            bus.publish("alice", NoteEventBus.UPDATED, i);
+        }
+
+        // All 20 are still logged, but the 8-slot queue can't take them
+        bus.subscribe("alice", "0");
+        // 7 missed events plus the initial heartbeat fit
+        bus.subscribe("alice", "13");
+
+        List<String> reset = awaitEvents(emitters.get(0), 1);
+        assertEquals(1, reset.size());
+        assertTrue(reset.get(0).contains(NoteEventBus.RESET));
+        assertEquals(7, awaitEvents(emitters.get(1), 7).size());
+        assertEquals(0L, bus.stats().get("overflowDisconnects"));
+        assertEquals(2, bus.stats().get("connections"));
+    }
+
+    @Test
+    @DisplayName("Resume for a user whose log was dropped should get a reset")
+    void resumeAfterUserLogDropped_ShouldReset() throws Exception {
+        bus.publish("alice", NoteEventBus.CREATED, 1);
+        bus.publish("bob", NoteEventBus.CREATED, 2);
+        bus.publish("carol", NoteEventBus.CREATED, 3);
+
+        bus.subscribe("alice", "0");
+
+        List<String> events = awaitEvents(emitters.get(0), 1);
+        assertEquals(1, events.size());
+        assertTrue(events.get(0).contains(NoteEventBus.RESET));
+        assertEquals(2, bus.stats().get("loggedUsers"));
+    }
+
+    @Test
+    @DisplayName("Concurrent connects should never exceed the per-user limit")
+    void concurrentConnects_ShouldRespectLimit() throws Exception {
+        int attempts = 16;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(attempts);
+        try {
+            List<Future<SseEmitter>> results = new ArrayList<>();
+            for (int i = 0; i < attempts; i++) {
+                results.add(pool.submit(() -> {
+                    start.await(5, TimeUnit.SECONDS);
+                    return bus.subscribe("alice", null);
+                }));
+            }
+            start.countDown();
+
+            int admitted = 0;
+            for (Future<SseEmitter> result : results) {
+                if (result.get(5, TimeUnit.SECONDS) != null) {
+                    admitted++;
+                }
+            }
+            assertEquals(2, admitted);
+            assertEquals(2, bus.stats().get("connections"));
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("A user's entry should be removed with their last stream")
+    void lastStreamClosed_ShouldRemoveUser() throws Exception {
+        failSends = true;
+        bus.subscribe("alice", null);
+
+        // The initial heartbeat fails to send, which closes the stream
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while ((int) bus.stats().get("users") > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+
+        assertEquals(0, bus.stats().get("users"));
+        assertEquals(0, bus.stats().get("connections"));
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.lab10.unit;
+
+import com.example.lab10.dto_.NoteFields;
+import com.example.lab10.dto_.NoteView;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for sparse fieldset parsing.
+ */
+@DisplayName("NoteFields Unit Tests")
+class NoteFieldsTest {
+
+    @Test
+    @DisplayName("Missing fields parameter should select all fields")
+    void missingParam_ShouldSelectAll() {
+        assertTrue(NoteFields.parse(null).isAll());
+        assertTrue(NoteFields.parse(" ").isAll());
+    }
+
+    @Test
+    @DisplayName("Field order and case should not change the fieldset key")
+    void key_ShouldBeCanonical() {
+        assertEquals(NoteFields.parse("title,id").key(), NoteFields.parse("ID, Title").key());
+        assertEquals("id.title", NoteFields.parse("title,id").key());
+    }
+
+    @Test
+    @DisplayName("Unknown field should be rejected")
+    void unknownField_ShouldBeRejected() {
+        assertThrows(IllegalArgumentException.class, () -> NoteFields.parse("id,password"));
+    }
+
+    @Test
+    @DisplayName("Title-only fieldset should not include content")
+    void titleOnly_ShouldExcludeContent() {
+        NoteFields fields = NoteFields.parse("id,title");
+
+        Map<String, Object> m = fields.toMap(new NoteView(1L, "Groceries", "milk", 2, false));
+
+        assertEquals(Map.of("id", 1L, "title", "Groceries"), m);
+        assertFalse(fields.includes(NoteFields.Field.CONTENT));
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.lab10.unit;
+
+import com.example.lab10.dto_.NoteFields;
+import com.example.lab10.dto_.NoteView;
+import com.example.lab10.service.NoteResponseWriter;
+import com.example.lab10.service.ResponseFormat;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.dataformat.cbor.CBORMapper;
+import tools.jackson.dataformat.smile.SmileMapper;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The streaming writer must produce the same document as the map-based representation, in every format.
+ */
+@DisplayName("NoteResponseWriter Unit Tests")
+class NoteResponseWriterTest {
+
+    private final ObjectMapper objectMapper = JsonMapper.builder().build();
+    private final NoteResponseWriter writer = new NoteResponseWriter(objectMapper);
+
+    private final List<NoteView> notes = List.of(
+            new NoteView(1L, "Groceries", "milk \"2%\"\nbread – ü", 3, false),
+            new NoteView(2L, "Large", null, 1, true),
+            new NoteView(3L, null, "", 0, false));
+
+    @Test
+    @DisplayName("List output matches databind of toMap for every fieldset")
+    void list_MatchesMapRepresentation() {
+        for (String fields : List.of("", "id,title", "content", "version,content,id")) {
+            NoteFields noteFields = NoteFields.parse(fields);
+            Object expected = notes.stream().map(noteFields::toMap).toList();
+
+            assertEquals(decoded(objectMapper, expected),
+                    objectMapper.readTree(writer.writeList(notes, noteFields, ResponseFormat.JSON)), "fields=" + fields);
+        }
+    }
+
+    @Test
+    @DisplayName("Single note output matches databind of toMap")
+    void note_MatchesMapRepresentation() {
+        NoteView note = notes.get(1);
+        assertEquals(decoded(objectMapper, NoteFields.ALL.toMap(note)),
+                objectMapper.readTree(writer.writeNote(note, NoteFields.ALL, ResponseFormat.JSON)));
+    }
+
+    @Test
+    @DisplayName("Empty list is written as an empty array")
+    void emptyList() {
+        assertEquals("[]", new String(writer.writeList(List.of(), NoteFields.ALL, ResponseFormat.JSON)));
+    }
+
+    @Test
+    @DisplayName("CBOR and Smile output decodes to the same document as JSON")
+    void binaryFormats_DecodeToSameDocument() {
+        Object expected = notes.stream().map(NoteFields.ALL::toMap).toList();
+        ObjectMapper cbor = CBORMapper.builder().build();
+        ObjectMapper smile = SmileMapper.builder().build();
+
+        assertEquals(decoded(cbor, expected),
+                cbor.readTree(writer.writeList(notes, NoteFields.ALL, ResponseFormat.CBOR)));
+        assertEquals(decoded(smile, expected),
+                smile.readTree(writer.writeList(notes, NoteFields.ALL, ResponseFormat.SMILE)));
+    }
+
+    /**
+     * The expected document written and read back by the same mapper, so numbers get the
+     * node types the parser picks (1 -> IntNode), not the Java types (Long -> LongNode).
+     */
+    private static JsonNode decoded(ObjectMapper mapper, Object expected) {
+        return mapper.readTree(mapper.writeValueAsBytes(expected));
+    }
+
+    @Test
+    @DisplayName("Accept negotiation: quality first, specific beats wildcard, JSON by default")
+    void negotiate() {
+        assertEquals(ResponseFormat.JSON, ResponseFormat.negotiate(null));
+        assertEquals(ResponseFormat.JSON, ResponseFormat.negotiate("*/*"));
+        assertEquals(ResponseFormat.JSON, ResponseFormat.negotiate("text/html"));
+        assertEquals(ResponseFormat.JSON, ResponseFormat.negotiate("not a media type"));
+        assertEquals(ResponseFormat.CBOR, ResponseFormat.negotiate("application/cbor"));
+        assertEquals(ResponseFormat.SMILE, ResponseFormat.negotiate("application/x-jackson-smile, */*"));
+        assertEquals(ResponseFormat.CBOR, ResponseFormat.negotiate("*/*, application/cbor"));
+        assertEquals(ResponseFormat.JSON, ResponseFormat.negotiate("application/cbor;q=0.5, application/json"));
+        assertEquals(ResponseFormat.JSON, ResponseFormat.negotiate("application/cbor;q=0, application/*"));
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.lab10.unit;
+
+import com.example.lab10.repo.NoteSearchRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for FTS5 query building in NoteSearchRepository.
+ */
+@DisplayName("Note Search Query Unit Tests")
+class NoteSearchQueryTest {
+
+    @Test
+    @DisplayName("Single term should become a quoted prefix match")
+    void singleTerm_ShouldBeQuotedPrefix() {
+        assertEquals("\"meet\"*", NoteSearchRepository.toMatchExpression("meet"));
+    }
+
+    @Test
+    @DisplayName("Multiple terms should be AND-ed with prefix on the last term")
+    void multipleTerms_ShouldBeAndedWithPrefixOnLast() {
+        assertEquals("\"team\" \"meet\"*", NoteSearchRepository.toMatchExpression("  team   meet "));
+    }
+
+    @Test
+    @DisplayName("FTS5 operators in user input should be treated as text")
+    void operators_ShouldBeQuoted() {
+        assertEquals("\"title:x\" \"OR\" \"NEAR(a\"*",
+                NoteSearchRepository.toMatchExpression("title:x OR NEAR(a"));
+    }
+
+    @Test
+    @DisplayName("Double quotes should be stripped from terms")
+    void doubleQuotes_ShouldBeStripped() {
+        assertEquals("\"hello\"*", NoteSearchRepository.toMatchExpression("\"hello\""));
+    }
+
+    @Test
+    @DisplayName("Blank or null query should produce empty expression")
+    void blankQuery_ShouldBeEmpty() {
+        assertEquals("", NoteSearchRepository.toMatchExpression("   "));
+        assertEquals("", NoteSearchRepository.toMatchExpression("\"\""));
+        assertEquals("", NoteSearchRepository.toMatchExpression(null));
+    }
+}
@@ -0,0 +1,200 @@
+package com.example.lab10.unit;
+
+import com.example.lab10.controller.NotesController;
+import com.example.lab10.dto_.NoteView;
+import com.example.lab10.repo.NoteRepository;
+import com.example.lab10.repo.NoteSearchRepository;
+import com.example.lab10.repo.UserRepository;
+import com.example.lab10.service.NoteBatchService;
+import com.example.lab10.service.NoteCache;
+import com.example.lab10.service.NoteContentStore;
+import com.example.lab10.service.NoteEventBus;
+import com.example.lab10.service.NoteResponseWriter;
+import com.example.lab10.service.SingleFlightRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Range handling of GET /notes/{id}/content, for a body stored inline (notes.content)
+ * and one stored out-of-row (note_blobs chunks, streamed by NoteContentStore).
+ * Every case runs against both notes; they hold the same 43-byte body.
+ */
+@DisplayName("NotesController Content Range Tests")
+class NotesControllerContentRangeTest {
+
+    private static final long INLINE_ID = 1L;
+    private static final long EXTERNAL_ID = 2L;
+    private static final List<Long> NOTES = List.of(INLINE_ID, EXTERNAL_ID);
+
+    private static final String BODY = "The quick brown fox jumps over the lazy dog";
+    private static final byte[] BYTES = BODY.getBytes(StandardCharsets.UTF_8);
+
+    private final NoteRepository noteRepository = mock(NoteRepository.class);
+    private final NoteContentStore noteContentStore = mock(NoteContentStore.class);
+
+    private MockMvc mvc;
+
+    @BeforeEach
+    void setUp() {
+        NotesController controller = new NotesController(noteRepository, mock(UserRepository.class),
+                mock(NoteSearchRepository.class), mock(NoteBatchService.class), mock(NoteCache.class),
+                noteContentStore, mock(NoteEventBus.class), mock(NoteResponseWriter.class),
+                new SingleFlightRegistry());
+        mvc = MockMvcBuilders.standaloneSetup(controller).build();
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("alice", null, List.of()));
+
+        when(noteRepository.findVersionOwned(anyLong(), eq("alice"))).thenReturn(Optional.of(5L));
+
+        when(noteContentStore.info(INLINE_ID)).thenReturn(Optional.empty());
+        when(noteRepository.findViewOwned(INLINE_ID, "alice"))
+                .thenReturn(Optional.of(new NoteView(INLINE_ID, "inline", BODY, 5L, false)));
+
+        NoteContentStore.BlobInfo blob = new NoteContentStore.BlobInfo(BYTES.length, 16);
+        when(noteContentStore.info(EXTERNAL_ID)).thenReturn(Optional.of(blob));
+        doAnswer(inv -> {
+            long start = inv.getArgument(2);
+            long end = inv.getArgument(3);
+            OutputStream out = inv.getArgument(4);
+            out.write(BYTES, (int) start, (int) (end - start + 1));
+            return null;
+        }).when(noteContentStore).stream(eq(EXTERNAL_ID), eq(blob), anyLong(), anyLong(), any());
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private MockHttpServletResponse content(long id, String range) throws Exception {
+        var request = get("/notes/{id}/content", id);
+        if (range != null) {
+            request.header("Range", range);
+        }
+        MvcResult result = mvc.perform(request).andReturn();
+        // Bodies are StreamingResponseBody (async); a 416 has no body and completes right away
+        if (result.getRequest().isAsyncStarted()) {
+            result = mvc.perform(asyncDispatch(result)).andReturn();
+        }
+        return result.getResponse();
+    }
+
+    @Test
+    @DisplayName("No Range returns the whole body with 200")
+    void noRange_ReturnsWholeBody() throws Exception {
+        for (long id : NOTES) {
+            MockHttpServletResponse response = content(id, null);
+
+            assertEquals(200, response.getStatus(), "note " + id);
+            assertEquals(BODY, response.getContentAsString(StandardCharsets.UTF_8), "note " + id);
+            assertEquals("bytes", response.getHeader("Accept-Ranges"), "note " + id);
+            assertNull(response.getHeader("Content-Range"), "note " + id);
+        }
+    }
+
+    @Test
+    @DisplayName("A single range returns 206 with Content-Range")
+    void singleRange_ReturnsPartialContent() throws Exception {
+        for (long id : NOTES) {
+            MockHttpServletResponse response = content(id, "bytes=4-8");
+
+            assertEquals(206, response.getStatus(), "note " + id);
+            assertEquals("quick", response.getContentAsString(StandardCharsets.UTF_8), "note " + id);
+            assertEquals("bytes 4-8/43", response.getHeader("Content-Range"), "note " + id);
+            assertEquals(5, response.getContentLength(), "note " + id);
+            assertEquals("\"b5\"", response.getHeader("ETag"), "note " + id);
+        }
+    }
+
+    @Test
+    @DisplayName("A suffix range returns the last N bytes")
+    void suffixRange_ReturnsTail() throws Exception {
+        for (long id : NOTES) {
+            MockHttpServletResponse response = content(id, "bytes=-4");
+
+            assertEquals(206, response.getStatus(), "note " + id);
+            assertEquals(" dog", response.getContentAsString(StandardCharsets.UTF_8), "note " + id);
+            assertEquals("bytes 39-42/43", response.getHeader("Content-Range"), "note " + id);
+        }
+    }
+
+    @Test
+    @DisplayName("An open-ended range runs to the end of the body")
+    void openEndedRange_RunsToEnd() throws Exception {
+        for (long id : NOTES) {
+            MockHttpServletResponse response = content(id, "bytes=35-");
+
+            assertEquals(206, response.getStatus(), "note " + id);
+            assertEquals("lazy dog", response.getContentAsString(StandardCharsets.UTF_8), "note " + id);
+            assertEquals("bytes 35-42/43", response.getHeader("Content-Range"), "note " + id);
+        }
+    }
+
+    @Test
+    @DisplayName("A suffix or end beyond the body is clamped to its length")
+    void oversizedRange_IsClamped() throws Exception {
+        for (long id : NOTES) {
+            assertEquals("bytes 0-42/43", content(id, "bytes=-100").getHeader("Content-Range"), "note " + id);
+            assertEquals("bytes 40-42/43", content(id, "bytes=40-1000").getHeader("Content-Range"), "note " + id);
+        }
+    }
+
+    @Test
+    @DisplayName("Multiple ranges return the whole body with 200")
+    void multiRange_ReturnsWholeBody() throws Exception {
+        for (long id : NOTES) {
+            MockHttpServletResponse response = content(id, "bytes=0-2,4-8");
+
+            assertEquals(200, response.getStatus(), "note " + id);
+            assertEquals(BODY, response.getContentAsString(StandardCharsets.UTF_8), "note " + id);
+            assertNull(response.getHeader("Content-Range"), "note " + id);
+        }
+    }
+
+    @Test
+    @DisplayName("An unsatisfiable or malformed range returns 416 with the body size")
+    void unsatisfiableRange_Returns416() throws Exception {
+        for (long id : NOTES) {
+            for (String range : List.of("bytes=43-50", "bytes=100-", "bytes=abc")) {
+                MockHttpServletResponse response = content(id, range);
+
+                assertEquals(416, response.getStatus(), "note " + id + ", " + range);
+                assertEquals("bytes */43", response.getHeader("Content-Range"), "note " + id + ", " + range);
+                assertEquals(0, response.getContentAsByteArray().length, "note " + id + ", " + range);
+            }
+        }
+        verify(noteContentStore, never()).stream(anyLong(), any(), anyLong(), anyLong(), any());
+    }
+
+    @Test
+    @DisplayName("An empty body is returned whole, and any range of it is unsatisfiable")
+    void emptyBody_RangeIsUnsatisfiable() throws Exception {
+        when(noteContentStore.info(3L)).thenReturn(Optional.empty());
+        when(noteRepository.findViewOwned(3L, "alice"))
+                .thenReturn(Optional.of(new NoteView(3L, "empty", null, 5L, false)));
+
+        assertEquals(200, content(3L, null).getStatus());
+        assertEquals(0, content(3L, null).getContentAsByteArray().length);
+        assertEquals(416, content(3L, "bytes=0-").getStatus());
+        assertEquals("bytes */0", content(3L, "bytes=-4").getHeader("Content-Range"));
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.lab10.unit;
+
+import com.example.lab10.controller.NotesController;
+import com.example.lab10.dto_.NotePatchRequest;
+import com.example.lab10.dto_.NoteRequest;
+import com.example.lab10.repo.NoteRepository;
+import com.example.lab10.repo.NoteSearchRepository;
+import com.example.lab10.repo.UserRepository;
+import com.example.lab10.service.NoteBatchService;
+import com.example.lab10.service.NoteCache;
+import com.example.lab10.service.NoteContentStore;
+import com.example.lab10.service.NoteEventBus;
+import com.example.lab10.service.NoteResponseWriter;
+import com.example.lab10.service.SingleFlightRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the If-Match handling of PUT / PATCH / DELETE /notes/{id}.
+ * The repository mock behaves like the conditional statements: a row is touched only
+ * when the expected version is null or equals the current version (3).
+ */
+@DisplayName("NotesController If-Match Tests")
+class NotesControllerPreconditionTest {
+
+    private static final long NOTE_ID = 7L;
+    private static final long CURRENT_VERSION = 3L;
+
+    private final NoteRepository noteRepository = mock(NoteRepository.class);
+    private final NoteCache noteCache = mock(NoteCache.class);
+    private final NoteEventBus noteEventBus = mock(NoteEventBus.class);
+
+    private NotesController controller;
+
+    @BeforeEach
+    void setUp() {
+        controller = new NotesController(noteRepository, mock(UserRepository.class),
+                mock(NoteSearchRepository.class), mock(NoteBatchService.class), noteCache,
+                mock(NoteContentStore.class), noteEventBus, mock(NoteResponseWriter.class),
+                new SingleFlightRegistry());
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("alice", null, List.of()));
+
+        when(noteRepository.existsByIdAndUserUsername(NOTE_ID, "alice")).thenReturn(true);
+        when(noteRepository.findVersionOwned(NOTE_ID, "alice")).thenReturn(Optional.of(CURRENT_VERSION));
+        when(noteRepository.updateOwned(eq(NOTE_ID), eq("alice"), any(), any(), any()))
+                .thenAnswer(inv -> touched(inv.getArgument(4)));
+        when(noteRepository.patchOwned(eq(NOTE_ID), eq("alice"), any(), any(), any()))
+                .thenAnswer(inv -> touched(inv.getArgument(4)));
+        when(noteRepository.deleteOwned(eq(NOTE_ID), eq("alice"), any()))
+                .thenAnswer(inv -> touched(inv.getArgument(2)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private static int touched(Long expectedVersion) {
+        return expectedVersion == null || expectedVersion == CURRENT_VERSION ? 1 : 0;
+    }
+
+    private int put(String ifMatch) {
+        NoteRequest req = new NoteRequest();
+        req.setTitle("title");
+        req.setContent("content");
+        return controller.update(NOTE_ID, ifMatch, req).getStatusCode().value();
+    }
+
+    private int patch(String ifMatch) {
+        NotePatchRequest req = new NotePatchRequest();
+        req.setTitle("title");
+        return controller.patch(NOTE_ID, ifMatch, req).getStatusCode().value();
+    }
+
+    private int delete(String ifMatch) {
+        return controller.delete(NOTE_ID, ifMatch).getStatusCode().value();
+    }
+
+    @Test
+    @DisplayName("PUT with the current version succeeds, a stale one fails with 412")
+    void put_MatchingAndStaleVersion() {
+        assertEquals(200, put("\"v3\""));
+        assertEquals(412, put("\"v2\""));
+    }
+
+    @Test
+    @DisplayName("PUT with an If-Match that is not a note version fails with 412")
+    void put_UnparseableIfMatch_IsPreconditionFailed() {
+        assertEquals(412, put("\"c5\""));
+        assertEquals(412, put("garbage"));
+        assertEquals(412, put("W/\"v3\""));
+        verify(noteCache, never()).evictNote(any(), anyLong());
+    }
+
+    @Test
+    @DisplayName("PATCH with the current version succeeds, a stale one fails with 412")
+    void patch_MatchingAndStaleVersion() {
+        assertEquals(200, patch("\"v3-id,title-cbor\""));
+        assertEquals(412, patch("\"v2\""));
+    }
+
+    @Test
+    @DisplayName("PATCH with an If-Match that is not a note version fails with 412")
+    void patch_UnparseableIfMatch_IsPreconditionFailed() {
+        assertEquals(412, patch("\"c5\""));
+        assertEquals(412, patch("v3x"));
+        verify(noteEventBus, never()).publish(any(), any(), anyLong());
+    }
+
+    @Test
+    @DisplayName("DELETE with the current version succeeds, a stale one fails with 412")
+    void delete_MatchingAndStaleVersion() {
+        assertEquals(412, delete("\"v2\""));
+        assertEquals(200, delete("\"v3\""));
+    }
+
+    @Test
+    @DisplayName("DELETE with an If-Match that is not a note version fails with 412")
+    void delete_UnparseableIfMatch_IsPreconditionFailed() {
+        assertEquals(412, delete("\"c5\""));
+        assertEquals(412, delete(""));
+    }
+
+    @Test
+    @DisplayName("If-Match: * only requires the note to exist")
+    void star_OnlyRequiresExistence() {
+        assertEquals(200, put("*"));
+
+        when(noteRepository.existsByIdAndUserUsername(NOTE_ID, "alice")).thenReturn(false);
+        when(noteRepository.deleteOwned(eq(NOTE_ID), eq("alice"), any())).thenReturn(0);
+        assertEquals(404, delete("*"));
+    }
+
+    @Test
+    @DisplayName("A list of tags matches when it contains the current version")
+    void list_ContainingCurrentVersion_Matches() {
+        assertEquals(200, put("\"v1\", \"v3-id,title\""));
+        assertEquals(412, put("\"v1\", \"v2\""));
+    }
+}
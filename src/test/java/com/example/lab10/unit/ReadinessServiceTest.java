@@ -0,0 +1,88 @@
+package com.example.lab10.unit;
+
+import com.example.lab10.service.ReadinessService;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("Readiness Service Tests")
+class ReadinessServiceTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+
+    @SuppressWarnings("unchecked")
+    private ReadinessService service() {
+        ObjectProvider<Flyway> flyway = mock(ObjectProvider.class);
+        return new ReadinessService(jdbcTemplate, flyway);
+    }
+
+    private static String body(ReadinessService service) {
+        return new String(service.body(), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    @DisplayName("Ready once the database answers and startup completed")
+    void ready_AfterStartup() {
+        ReadinessService service = service();
+        assertFalse(service.isReady());
+
+        ReflectionTestUtils.invokeMethod(service, "onApplicationReady");
+
+        assertTrue(service.isReady());
+        assertTrue(body(service).startsWith("{\"status\":\"UP\""));
+    }
+
+    @Test
+    @DisplayName("A held warm-up keeps the node not ready until it completes")
+    void warmupHold_DelaysReadiness() {
+        ReadinessService service = service();
+        service.holdWarmup();
+
+        ReflectionTestUtils.invokeMethod(service, "onApplicationReady");
+        assertFalse(service.isReady());
+        assertTrue(body(service).contains("\"warmup\":\"DOWN\""));
+
+        service.warmupComplete();
+        assertTrue(service.isReady());
+    }
+
+    @Test
+    @DisplayName("Database failure makes the node not ready")
+    void databaseDown_NotReady() {
+        ReadinessService service = service();
+        ReflectionTestUtils.invokeMethod(service, "onApplicationReady");
+        assertTrue(service.isReady());
+
+        when(jdbcTemplate.queryForObject("SELECT 1", Integer.class))
+                .thenThrow(new CannotGetJdbcConnectionException("down"));
+        service.check();
+
+        assertFalse(service.isReady());
+        assertTrue(body(service).contains("\"database\":\"DOWN\""));
+    }
+
+    @Test
+    @DisplayName("The body is only re-rendered when a check changes")
+    void unchangedState_KeepsBody() {
+        ReadinessService service = service();
+        ReflectionTestUtils.invokeMethod(service, "onApplicationReady");
+        byte[] up = service.body();
+
+        service.check();
+        assertSame(up, service.body());
+
+        when(jdbcTemplate.queryForObject("SELECT 1", Integer.class))
+                .thenThrow(new CannotGetJdbcConnectionException("down"));
+        service.check();
+        assertNotSame(up, service.body());
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.lab10.unit;
+
+import com.example.lab10.security.RequestPipelineFilter;
+import com.example.lab10.security.RequestRoute;
+import com.example.lab10.security.RequestStage;
+import com.example.lab10.security.SecurityHeadersFilter;
+import com.example.lab10.service.LatencyMetrics;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Request Pipeline Filter Tests")
+class RequestPipelineFilterTest {
+
+    /**
+     * Counts invocations and records the route it was given.
+     */
+    private static class CountingStage implements RequestStage {
+        final AtomicInteger calls = new AtomicInteger();
+        final List<RequestRoute> routes = new ArrayList<>();
+        final boolean pass;
+
+        CountingStage(boolean pass) {
+            this.pass = pass;
+        }
+
+        @Override
+        public boolean apply(HttpServletRequest request,
+                             HttpServletResponse response,
+                             RequestRoute route) {
+            calls.incrementAndGet();
+            routes.add(route);
+            return pass;
+        }
+    }
+
+    @Test
+    @DisplayName("Each stage runs exactly once per request, with the route computed once")
+    void eachStage_RunsOncePerRequest() throws Exception {
+        CountingStage first = new CountingStage(true);
+        CountingStage second = new CountingStage(true);
+        RequestPipelineFilter pipeline = new RequestPipelineFilter(List.of(first, second), new LatencyMetrics());
+
+        for (String uri : List.of("/auth/login", "/notes/1", "/hello")) {
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+            pipeline.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        }
+
+        assertEquals(3, first.calls.get());
+        assertEquals(3, second.calls.get());
+        assertEquals(List.of(RequestRoute.AUTH, RequestRoute.NOTES, RequestRoute.OTHER), first.routes);
+        assertEquals(first.routes, second.routes);
+    }
+
+    @Test
+    @DisplayName("Re-entering the pipeline for the same request does not run stages again")
+    void reentry_DoesNotRunStagesTwice() throws Exception {
+        CountingStage stage = new CountingStage(true);
+        RequestPipelineFilter pipeline = new RequestPipelineFilter(List.of(stage), new LatencyMetrics());
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/notes");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // The pipeline registered twice in the same chain
+        pipeline.doFilter(request, response, new MockFilterChain(new HttpServlet() { }, pipeline));
+
+        assertEquals(1, stage.calls.get());
+        assertEquals(RequestRoute.NOTES, request.getAttribute(RequestRoute.ATTRIBUTE));
+    }
+
+    @Test
+    @DisplayName("A stage that rejects stops later stages and the chain")
+    void rejectingStage_StopsPipeline() throws Exception {
+        CountingStage rejecting = new CountingStage(false);
+        CountingStage later = new CountingStage(true);
+        RequestPipelineFilter pipeline = new RequestPipelineFilter(List.of(rejecting, later), new LatencyMetrics());
+        MockFilterChain chain = new MockFilterChain();
+
+        pipeline.doFilter(new MockHttpServletRequest("POST", "/auth/login"), new MockHttpServletResponse(), chain);
+
+        assertEquals(1, rejecting.calls.get());
+        assertEquals(0, later.calls.get());
+        assertNull(chain.getRequest());
+    }
+
+    @Test
+    @DisplayName("Non-standard methods are recorded under a single OTHER label")
+    void unknownMethods_AreRecordedAsOther() throws Exception {
+        LatencyMetrics metrics = new LatencyMetrics();
+        RequestPipelineFilter pipeline = new RequestPipelineFilter(List.of(), metrics);
+
+        for (String method : List.of("GET", "PATCH", "PROPFIND", "X-RANDOM-1", "X-RANDOM-2", "get")) {
+            pipeline.doFilter(new MockHttpServletRequest(method, "/hello"), new MockHttpServletResponse(),
+                    new MockFilterChain());
+        }
+
+        String text = metrics.prometheus();
+        assertTrue(text.contains("method=\"GET\""));
+        assertTrue(text.contains("method=\"PATCH\""));
+        assertTrue(text.contains("lab10_http_server_requests_seconds_count{method=\"OTHER\",route=\"OTHER\",status=\"200\"} 4"));
+        assertFalse(text.contains("PROPFIND"));
+        assertFalse(text.contains("X-RANDOM"));
+        assertFalse(text.contains("method=\"get\""));
+    }
+
+    @Test
+    @DisplayName("Precomputed route headers are applied by the headers stage")
+    void headersStage_AppliesRouteHeaders() throws Exception {
+        RequestPipelineFilter pipeline = new RequestPipelineFilter(List.of(new SecurityHeadersFilter()), new LatencyMetrics());
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        pipeline.doFilter(new MockHttpServletRequest("GET", "/api/echo"), response, new MockFilterChain());
+
+        assertEquals("nosniff", response.getHeader("X-Content-Type-Options"));
+        assertEquals("no-store, no-cache, must-revalidate, max-age=0", response.getHeader("Cache-Control"));
+        assertEquals("no-cache", response.getHeader("Pragma"));
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.lab10.unit;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import com.example.lab10.service.SecurityEventAggregator;
+import com.example.lab10.service.SecurityEventAggregator.Rollup;
+import com.example.lab10.service.SecurityEventAggregator.Type;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Security Event Aggregator Tests")
+class SecurityEventAggregatorTest {
+
+    private SecurityEventAggregator aggregator;
+
+    @BeforeEach
+    void setUp() {
+        aggregator = new SecurityEventAggregator();
+        ReflectionTestUtils.setField(aggregator, "history", 60);
+        ReflectionTestUtils.setField(aggregator, "maxKeys", 3);
+        ReflectionTestUtils.setField(aggregator, "summaryTop", 5);
+    }
+
+    @Test
+    @DisplayName("Events are rolled up by type, masked username and IP prefix")
+    void rollsUpByKey() {
+        aggregator.record(Type.LOGIN_FAILURE, "admin", "203.0.113.7");
+        aggregator.record(Type.LOGIN_FAILURE, "adversary", "203.0.113.99");
+        aggregator.record(Type.RATE_LIMITED, null, "203.0.113.7");
+
+        aggregator.rollover();
+        Rollup rollup = windows().get(0);
+
+        assertEquals(3, rollup.total());
+        assertEquals(2L, rollup.byType().get(Type.LOGIN_FAILURE));
+        SecurityEventAggregator.Count top = rollup.counts().get(0);
+        assertEquals(new SecurityEventAggregator.Count(Type.LOGIN_FAILURE, "ad***", "203.0.113.0/24", 2), top);
+    }
+
+    @Test
+    @DisplayName("Keys beyond the per-window limit are counted under an overflow key")
+    void overflowKey() {
+        for (int i = 0; i < 10; i++) {
+            aggregator.record(Type.LOGIN_FAILURE, "user" + i, "10.0." + i + ".1");
+        }
+
+        aggregator.rollover();
+        Rollup rollup = windows().get(0);
+
+        assertEquals(10, rollup.total());
+        assertTrue(rollup.counts().size() <= 4);
+        assertTrue(rollup.counts().stream().anyMatch(c -> c.user().equals("*") && c.count() == 7));
+    }
+
+    @Test
+    @DisplayName("Windows start empty after a rollover and are listed newest first")
+    void windowsNewestFirst() {
+        aggregator.record(Type.AUTHORIZATION_DENIED, "bob", "198.51.100.1");
+        aggregator.rollover();
+        aggregator.rollover();
+
+        List<Rollup> windows = windows();
+        assertEquals(2, windows.size());
+        assertEquals(0, windows.get(0).total());
+        assertEquals(1, windows.get(1).total());
+    }
+
+    @Test
+    @DisplayName("IP prefixes: /24 for IPv4, /48 for IPv6")
+    void ipPrefixes() {
+        assertEquals("192.168.1.0/24", SecurityEventAggregator.ipPrefix("192.168.1.200"));
+        assertEquals("2001:db8:1::/48", SecurityEventAggregator.ipPrefix("2001:db8:1:2::5"));
+        assertEquals("fe80:0:0::/48", SecurityEventAggregator.ipPrefix("fe80::1"));
+        assertEquals("unknown", SecurityEventAggregator.ipPrefix(null));
+    }
+
+    @Test
+    @DisplayName("IP prefixes: only single IP literals are accepted")
+    void ipPrefixes_RejectNonLiterals() {
+        assertEquals("203.0.113.0/24", SecurityEventAggregator.ipPrefix("::ffff:203.0.113.9"));
+        assertEquals("fe80:0:0::/48", SecurityEventAggregator.ipPrefix("fe80::1%eth0"));
+        for (String value : new String[] {"not-an-ip", "203.0.113.7, 10.0.0.1", "999.1.1.1", "1.2.3",
+                "example.com", "2001:db8::g", "1.2.3.4.evil"}) {
+            assertEquals("invalid", SecurityEventAggregator.ipPrefix(value), value);
+        }
+    }
+
+    @Test
+    @DisplayName("The window summary is logged at WARN, above the async appenders' discard level")
+    void summaryLoggedAtWarn() {
+        Logger logger = (Logger) LoggerFactory.getLogger(SecurityEventAggregator.class);
+        ListAppender<ILoggingEvent> appender = new ListAppender<>();
+        appender.start();
+        logger.addAppender(appender);
+        try {
+            aggregator.record(Type.LOGIN_FAILURE, "admin", "203.0.113.7");
+            aggregator.rollover();
+            // An empty window logs nothing
+            aggregator.rollover();
+        } finally {
+            logger.detachAppender(appender);
+        }
+
+        assertEquals(1, appender.list.size());
+        assertEquals(Level.WARN, appender.list.get(0).getLevel());
+        assertTrue(appender.list.get(0).getFormattedMessage().startsWith("SECURITY summary"));
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Rollup> windows() {
+        Map<String, Object> stats = aggregator.stats(60);
+        return (List<Rollup>) stats.get("windows");
+    }
+}
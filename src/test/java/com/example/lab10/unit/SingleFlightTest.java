@@ -0,0 +1,122 @@
+package com.example.lab10.unit;
+
+import com.example.lab10.service.SingleFlight;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for SingleFlight.
+ */
+@DisplayName("SingleFlight Unit Tests")
+class SingleFlightTest {
+
+    private final SingleFlight<String, Integer> flight = new SingleFlight<>("test");
+
+    @Test
+    @DisplayName("Concurrent callers for the same key should share one load")
+    void concurrentCallers_ShouldShareOneLoad() throws Exception {
+        int callers = 8;
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+
+        ExecutorService pool = Executors.newFixedThreadPool(callers);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            results.add(pool.submit(() -> flight.load("k", () -> {
+                started.countDown();
+                await(release);
+                return loads.incrementAndGet();
+            })));
+            started.await(5, TimeUnit.SECONDS);
+            for (int i = 1; i < callers; i++) {
+                results.add(pool.submit(() -> flight.load("k", loads::incrementAndGet)));
+            }
+
+            // Let the waiters reach the in-flight future before the load completes
+            while ((long) flight.stats().get("calls") < callers) {
+                Thread.sleep(1);
+            }
+            Thread.sleep(50);
+            release.countDown();
+
+            for (Future<Integer> result : results) {
+                assertEquals(1, result.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(1, loads.get());
+            assertEquals((long) callers - 1, flight.stats().get("coalesced"));
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Sequential calls should not be cached")
+    void sequentialCalls_ShouldLoadEachTime() {
+        AtomicInteger loads = new AtomicInteger();
+
+        flight.load("k", loads::incrementAndGet);
+        flight.load("k", loads::incrementAndGet);
+
+        assertEquals(2, loads.get());
+        assertEquals(0L, flight.stats().get("coalesced"));
+    }
+
+    @Test
+    @DisplayName("Loader failure should propagate and not stick")
+    void failure_ShouldPropagateAndNotStick() {
+        assertThrows(IllegalStateException.class, () -> flight.load("k", () -> {
+            throw new IllegalStateException("db down");
+        }));
+
+        assertEquals(42, flight.load("k", () -> 42));
+        assertEquals(0, flight.stats().get("inFlight"));
+    }
+
+    @Test
+    @DisplayName("After forget, new callers should not join the detached load")
+    void forget_ShouldStartFreshLoad() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        try {
+            Future<Integer> stale = pool.submit(() -> flight.load("k", () -> {
+                started.countDown();
+                await(release);
+                return 1;
+            }));
+            started.await(5, TimeUnit.SECONDS);
+
+            // A write committed here: the running load may have read the old value
+            flight.forget("k");
+            assertEquals(2, flight.load("k", () -> 2));
+
+            release.countDown();
+            assertEquals(1, stale.get(5, TimeUnit.SECONDS));
+            assertEquals(0L, flight.stats().get("coalesced"));
+            assertEquals(0, flight.stats().get("inFlight"));
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}